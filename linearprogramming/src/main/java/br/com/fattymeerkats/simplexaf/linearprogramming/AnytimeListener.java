@@ -0,0 +1,18 @@
+package br.com.fattymeerkats.simplexaf.linearprogramming;
+
+/**
+ * Receives the feasible solutions found by the Simplex in anytime mode (see
+ * {@link Simplex#setAnytimeListener(AnytimeListener)}).
+ */
+public interface AnytimeListener {
+
+    /**
+     * Called once the Simplex reaches a feasible basis and then after each primal iteration.
+     * The solution can be read with {@link Simplex#value()}, {@link Simplex#primal(double[])}
+     * and {@link Simplex#getBound()}; it is only valid during the call, since the next
+     * iteration overwrites it.
+     *
+     * @param simplex the Simplex being solved
+     */
+    void feasibleSolution(Simplex simplex);
+}
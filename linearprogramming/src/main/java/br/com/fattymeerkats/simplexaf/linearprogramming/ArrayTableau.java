@@ -0,0 +1,59 @@
+package br.com.fattymeerkats.simplexaf.linearprogramming;
+
+import java.util.Arrays;
+
+/**
+ * Tableaux stored in a double[][] in the Java heap. The array can be larger than the tableaux
+ * when it is reused by {@link #reshape(int, int)}.
+ */
+public class ArrayTableau implements Tableau {
+
+    private double[][] a;
+    private int rows;
+    private int columns;
+
+    public ArrayTableau(int rows, int columns) {
+        a = new double[rows][columns];
+        this.rows = rows;
+        this.columns = columns;
+    }
+
+    /**
+     * Resize the tableaux to rows x columns and zero it, reusing the array when it is large enough.
+     */
+    public void reshape(int rows, int columns) {
+        if (rows > a.length || columns > a[0].length)
+            a = new double[Math.max(rows, a.length)][Math.max(columns, a[0].length)];
+        else
+            for (int i = 0; i < rows; i++)
+                Arrays.fill(a[i], 0, columns, 0.0);
+        this.rows = rows;
+        this.columns = columns;
+    }
+
+    public double[][] getArray() { return a; }
+
+    public int getNumberOfRows() { return rows; }
+
+    public int getNumberOfColumns() { return columns; }
+
+    public double get(int i, int j) { return a[i][j]; }
+
+    public void set(int i, int j, double value) { a[i][j] = value; }
+
+    public void readRow(int i, double[] destination) {
+        System.arraycopy(a[i], 0, destination, 0, columns);
+    }
+
+    public void subtractRow(int i, double factor, double[] source) {
+        double[] row = a[i];
+        for (int j = 0; j < columns; j++)
+            row[j] -= factor * source[j];
+    }
+
+    public void scaleRow(int i, double divisor, double[] source) {
+        double[] row = a[i];
+        for (int j = 0; j < columns; j++)
+            row[j] = source[j] / divisor;
+    }
+}
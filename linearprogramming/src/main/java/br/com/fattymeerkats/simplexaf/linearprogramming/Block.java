@@ -0,0 +1,37 @@
+package br.com.fattymeerkats.simplexaf.linearprogramming;
+
+/**
+ * A block of a block-angular problem: a subset of the variables and the local constraints
+ * that involve only them (e.g. the land, labor and crop rules of one family farm).
+ * The local constraints must keep the block variables bounded.
+ */
+public class Block {
+
+    private int[] variables; // variables[j] = index in the full problem of the j-th block variable
+    private double[][] constraintLeftSide;
+    private double[] constraintRightSide;
+    private Constraint[] constraintOperators;
+
+    /**
+     * @param variables the indexes of the block variables in the full problem
+     * @param constraintLeftSide the local constraints, one column per block variable
+     * @param constraintRightSide the right side of each local constraint
+     * @param constraintOperator the operator of each local constraint
+     */
+    public Block(int[] variables, double[][] constraintLeftSide,
+                 double[] constraintRightSide, Constraint[] constraintOperator) {
+        this.variables = variables;
+        this.constraintLeftSide = constraintLeftSide;
+        this.constraintRightSide = constraintRightSide;
+        this.constraintOperators = constraintOperator;
+    }
+
+    public int[] getVariables() { return variables; }
+
+    public double[][] getConstraintLeftSide() { return constraintLeftSide; }
+
+    public double[] getConstraintRightSide() { return constraintRightSide; }
+
+    public Constraint[] getConstraintOperators() { return constraintOperators; }
+
+}
@@ -0,0 +1,115 @@
+package br.com.fattymeerkats.simplexaf.linearprogramming;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Tableaux stored outside the Java heap, split in blocks of whole rows (a single buffer can't
+ * hold more than 2 GB). The blocks are either direct buffers or regions of a memory-mapped
+ * file, in which case the operating system pages them in and out as the Simplex touches them,
+ * allowing tableaux larger than the heap (and than the physical memory) without GC pressure.
+ */
+public class BufferTableau implements Tableau {
+
+    private static final int BLOCK_BYTES = 1 << 26; // 64 MB
+
+    private int rows;
+    private int columns;
+    private int rowsPerBlock;
+    private DoubleBuffer[] blocks;
+
+    private BufferTableau(int rows, int columns) {
+        this.rows = rows;
+        this.columns = columns;
+        this.rowsPerBlock = Math.max(1, BLOCK_BYTES / (8 * columns));
+        this.blocks = new DoubleBuffer[(rows + rowsPerBlock - 1) / rowsPerBlock];
+    }
+
+    /**
+     * Allocate the tableaux in direct buffers.
+     */
+    public static BufferTableau allocateDirect(int rows, int columns) {
+        BufferTableau tableau = new BufferTableau(rows, columns);
+        for (int k = 0; k < tableau.blocks.length; k++)
+            tableau.blocks[k] = ByteBuffer.allocateDirect(tableau.blockBytes(k))
+                    .order(ByteOrder.nativeOrder()).asDoubleBuffer();
+        return tableau;
+    }
+
+    /**
+     * Allocate the tableaux in a memory-mapped file, which is overwritten.
+     */
+    public static BufferTableau map(File file, int rows, int columns) throws IOException {
+        BufferTableau tableau = new BufferTableau(rows, columns);
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+        try {
+            randomAccessFile.setLength(0);
+            FileChannel channel = randomAccessFile.getChannel();
+            long offset = 0;
+            for (int k = 0; k < tableau.blocks.length; k++) {
+                int size = tableau.blockBytes(k);
+                tableau.blocks[k] = channel.map(FileChannel.MapMode.READ_WRITE, offset, size)
+                        .order(ByteOrder.nativeOrder()).asDoubleBuffer();
+                offset += size;
+            }
+        } finally {
+            randomAccessFile.close(); // the mapping stays valid after the channel is closed
+        }
+        return tableau;
+    }
+
+    /**
+     * Allocate the tableaux in a memory-mapped temporary file, deleted when no longer needed.
+     */
+    public static BufferTableau mapTemporary(int rows, int columns) throws IOException {
+        File file = File.createTempFile("tableaux", ".bin");
+        try {
+            return map(file, rows, columns);
+        } finally {
+            if (!file.delete())
+                file.deleteOnExit();
+        }
+    }
+
+    private int blockBytes(int k) {
+        int blockRows = Math.min(rowsPerBlock, rows - k * rowsPerBlock);
+        return 8 * blockRows * columns;
+    }
+
+    public int getNumberOfRows() { return rows; }
+
+    public int getNumberOfColumns() { return columns; }
+
+    public double get(int i, int j) {
+        return blocks[i / rowsPerBlock].get((i % rowsPerBlock) * columns + j);
+    }
+
+    public void set(int i, int j, double value) {
+        blocks[i / rowsPerBlock].put((i % rowsPerBlock) * columns + j, value);
+    }
+
+    public void readRow(int i, double[] destination) {
+        DoubleBuffer block = blocks[i / rowsPerBlock].duplicate();
+        block.position((i % rowsPerBlock) * columns);
+        block.get(destination, 0, columns);
+    }
+
+    public void subtractRow(int i, double factor, double[] source) {
+        DoubleBuffer block = blocks[i / rowsPerBlock];
+        int start = (i % rowsPerBlock) * columns;
+        for (int j = 0; j < columns; j++)
+            block.put(start + j, block.get(start + j) - factor * source[j]);
+    }
+
+    public void scaleRow(int i, double divisor, double[] source) {
+        DoubleBuffer block = blocks[i / rowsPerBlock];
+        int start = (i % rowsPerBlock) * columns;
+        for (int j = 0; j < columns; j++)
+            block.put(start + j, source[j] / divisor);
+    }
+}
@@ -0,0 +1,92 @@
+package br.com.fattymeerkats.simplexaf.linearprogramming;
+
+/**
+ * An optimal solution returned by the {@link SolutionCache}, laid out in the constraint order of
+ * the model that requested it (original variables first, then one slack per tableaux row).
+ */
+public class CachedSolution implements LinearSolver {
+
+    private double value;
+    private double[] x;
+    private double[] y;
+    private int[] basis;
+    private Constraint[] constraintOperators;
+    private double[] constraintRightSide; // right side of each tableaux row
+    private int numberOfOriginalVariables;
+    private boolean hit;
+
+    CachedSolution(double value, double[] x, double[] y, int[] basis,
+                   Constraint[] constraintOperators, double[] constraintRightSide,
+                   int numberOfOriginalVariables, boolean hit) {
+        this.value = value;
+        this.x = x;
+        this.y = y;
+        this.basis = basis;
+        this.constraintOperators = constraintOperators;
+        this.constraintRightSide = constraintRightSide;
+        this.numberOfOriginalVariables = numberOfOriginalVariables;
+        this.hit = hit;
+    }
+
+    /**
+     * Optimal value of the problem.
+     *
+     * @return the optimal objective value
+     */
+    public double value() {
+        return value;
+    }
+
+    /**
+     * The solution values of each variable.
+     *
+     * @return the primal solution vector.
+     */
+    public double[] primal() {
+        return x.clone();
+    }
+
+    /**
+     * The dual values of each original constraint (see {@link Simplex#dual()}).
+     *
+     * @return the dual solution vector.
+     */
+    public double[] dual() {
+        return y.clone();
+    }
+
+    /**
+     * The original variables in the optimal basis.
+     *
+     * @return the basic structural columns
+     */
+    public int[] getBasicColumns() {
+        return basis.clone();
+    }
+
+    /**
+     * If the solution came from the cache instead of a new solve.
+     */
+    public boolean isHit() {
+        return hit;
+    }
+
+    /**
+     * Calculate how much of each constraint is being used (original r.h. value - slack).
+     * Note: slack = waste/leftover
+     *
+     * @param solutionVector the solution values of each variable
+     * @return a vector describing how much of each constraint is being used
+     */
+    public double[] constraintsFinalValues(double[] solutionVector) {
+        double[] v = new double[constraintRightSide.length];
+        for (int i = 0; i < constraintRightSide.length; i++)
+            if (constraintOperators[i].equals(Constraint.greaterThan))
+                v[i] = - constraintRightSide[i] - solutionVector[numberOfOriginalVariables + i];
+            else
+                v[i] = constraintRightSide[i] - solutionVector[numberOfOriginalVariables + i];
+
+        return v;
+    }
+
+}
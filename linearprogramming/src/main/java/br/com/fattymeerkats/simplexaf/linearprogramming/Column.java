@@ -0,0 +1,27 @@
+package br.com.fattymeerkats.simplexaf.linearprogramming;
+
+/**
+ * A variable generated on demand by the column generation: its objective coefficient and its
+ * coefficients in each constraint of the master problem.
+ */
+public class Column {
+
+    private double cost;
+    private double[] coefficients;
+
+    private int age; // number of consecutive master solves in which the column stayed non-basic
+
+    public Column(double cost, double[] coefficients) {
+        this.cost = cost;
+        this.coefficients = coefficients;
+    }
+
+    public double getCost() { return cost; }
+
+    public double[] getCoefficients() { return coefficients; }
+
+    public int getAge() { return age; }
+
+    void setAge(int age) { this.age = age; }
+
+}
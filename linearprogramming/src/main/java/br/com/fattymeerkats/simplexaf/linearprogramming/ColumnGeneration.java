@@ -0,0 +1,239 @@
+package br.com.fattymeerkats.simplexaf.linearprogramming;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class solves linear programming problems with too many variables to be enumerated,
+ * using column generation: a restricted master problem holding only some of the columns is
+ * solved by the Simplex, and its dual values are handed to a {@link PricingCallback} that
+ * returns new improving columns, until no more are found.
+ *
+ * Each re-solve is warm started from the previous optimal basis. Columns that stay non-basic
+ * for more than maxAge solves are purged, and the master never keeps more than maxColumns
+ * non-basic columns, bounding the memory used by the tableaux.
+ */
+public class ColumnGeneration {
+
+    private double[] constraintRightSide;
+    private Constraint[] constraintOperators;
+    private ProblemKind maximizeOrMinimize;
+    private PricingCallback pricing;
+
+    private final double EPSILON = 1.0E-9;
+
+    private int maxAge = Integer.MAX_VALUE;
+    private int maxColumns = Integer.MAX_VALUE;
+    private int maxIterations = 1000;
+
+    private List<Column> columns; // columns of the restricted master problem
+    private Simplex master = new Simplex(); // its workspace is reused by every re-solve
+    private int iterations;
+
+    /**
+     * Returns a ColumnGeneration object. The initial columns must make the master problem feasible.
+     *
+     * @param constraintRightSide the right side of each master constraint
+     * @param constraintOperator the operator of each master constraint
+     * @param maximizeOrMinimize the problem kind
+     * @param initialColumns the columns the master problem starts with
+     * @param pricing the pricing problem
+     */
+    public ColumnGeneration(double[] constraintRightSide, Constraint[] constraintOperator,
+                            ProblemKind maximizeOrMinimize, List<Column> initialColumns,
+                            PricingCallback pricing) {
+        this.constraintRightSide = constraintRightSide;
+        this.constraintOperators = constraintOperator;
+        this.maximizeOrMinimize = maximizeOrMinimize;
+        this.columns = new ArrayList<Column>(initialColumns);
+        this.pricing = pricing;
+    }
+
+    public void setMaxAge(int maxAge) { this.maxAge = maxAge; }
+
+    public void setMaxColumns(int maxColumns) {
+        if (maxColumns < 1)
+            throw new IllegalArgumentException("The master must keep at least one new column");
+        this.maxColumns = maxColumns;
+    }
+
+    public void setMaxIterations(int maxIterations) { this.maxIterations = maxIterations; }
+
+    /**
+     * Alternate between solving the restricted master problem and pricing new columns.
+     */
+    public void solve() {
+        int[] warmStart = null;
+
+        for (iterations = 1; iterations <= maxIterations; iterations++) {
+
+            master.solve(buildMaster(), warmStart);
+
+            int[] basis = master.getBasis();
+            boolean[] basic = new boolean[columns.size()];
+            for (int i = 0; i < basis.length; i++)
+                if (basis[i] < columns.size())
+                    basic[basis[i]] = true;
+
+            for (int j = 0; j < columns.size(); j++)
+                if (basic[j])
+                    columns.get(j).setAge(0);
+                else
+                    columns.get(j).setAge(columns.get(j).getAge() + 1);
+
+            double[] dual = master.dual();
+            List<Column> generated = pricing.price(dual);
+
+            List<Column> improving = new ArrayList<Column>();
+            for (Column column : generated)
+                if (improves(column, dual)) {
+                    column.setAge(0);
+                    improving.add(column);
+                }
+
+            if (improving.isEmpty())
+                return; // optimal
+
+            // the new columns are added before the purge, so they count against maxColumns too
+            columns.addAll(improving);
+            int numberOfBasicColumns = purge(basic);
+
+            // purge puts the basic columns first, in the order of the master basis rows
+            warmStart = new int[numberOfBasicColumns];
+            for (int k = 0; k < numberOfBasicColumns; k++)
+                warmStart[k] = k;
+        }
+
+        throw new ArithmeticException("Column generation did not converge");
+    }
+
+    /**
+     * Check the reduced cost of a column against the current dual values.
+     *
+     * @return if the column may improve the master problem
+     */
+    private boolean improves(Column column, double[] dual) {
+        double reducedCost = column.getCost();
+        double[] a = column.getCoefficients();
+        for (int i = 0; i < dual.length; i++)
+            reducedCost -= dual[i] * a[i];
+
+        if (maximizeOrMinimize.equals(ProblemKind.MAXIMIZE))
+            return reducedCost > EPSILON;
+
+        return reducedCost < -EPSILON;
+    }
+
+    /**
+     * Remove the non-basic columns older than maxAge and then the oldest non-basic columns
+     * until at most maxColumns are left. Basic columns are always kept, first and in the order
+     * of the master basis rows.
+     *
+     * @param basic basic[j] = if column j is in the current basis; the columns after the end
+     *              of the array were just generated and are non-basic
+     * @return the number of basic columns
+     */
+    private int purge(boolean[] basic) {
+        List<Column> basicColumns = new ArrayList<Column>();
+        List<Column> nonBasicColumns = new ArrayList<Column>();
+
+        int[] basis = master.getBasis();
+        for (int i = 0; i < basis.length; i++)
+            if (basis[i] < columns.size())
+                basicColumns.add(columns.get(basis[i]));
+
+        for (int j = 0; j < columns.size(); j++)
+            if ((j >= basic.length || !basic[j]) && columns.get(j).getAge() <= maxAge)
+                nonBasicColumns.add(columns.get(j));
+
+        while (nonBasicColumns.size() > maxColumns) {
+            int oldest = 0;
+            for (int j = 1; j < nonBasicColumns.size(); j++)
+                if (nonBasicColumns.get(j).getAge() > nonBasicColumns.get(oldest).getAge())
+                    oldest = j;
+            nonBasicColumns.remove(oldest);
+        }
+
+        columns = new ArrayList<Column>(basicColumns);
+        columns.addAll(nonBasicColumns);
+
+        return basicColumns.size();
+    }
+
+    /**
+     * Build the restricted master problem with the current columns.
+     */
+    private Modeler buildMaster() {
+        int numberOfConstraints = constraintRightSide.length;
+
+        double[][] constraintLeftSide = new double[numberOfConstraints][columns.size()];
+        double[] objectiveFunction = new double[columns.size()];
+        for (int j = 0; j < columns.size(); j++) {
+            Column column = columns.get(j);
+            objectiveFunction[j] = column.getCost();
+            for (int i = 0; i < numberOfConstraints; i++)
+                constraintLeftSide[i][j] = column.getCoefficients()[i];
+        }
+
+        return new Modeler(constraintLeftSide, constraintRightSide, constraintOperators,
+                objectiveFunction, maximizeOrMinimize);
+    }
+
+    /**
+     * Optimal value of the problem.
+     *
+     * @return the optimal objective value
+     */
+    public double value() {
+        return master.value();
+    }
+
+    /**
+     * The solution values of each column, in the order of {@link #getColumns()}.
+     *
+     * @return the primal solution vector.
+     */
+    public double[] primal() {
+        double[] x = master.primal();
+        double[] values = new double[columns.size()];
+        System.arraycopy(x, 0, values, 0, columns.size());
+        return values;
+    }
+
+    /**
+     * The dual values of the master constraints at the optimum.
+     *
+     * @return the dual solution vector.
+     */
+    public double[] dual() {
+        return master.dual();
+    }
+
+    /**
+     * The columns of the final restricted master problem.
+     *
+     * @return the columns
+     */
+    public List<Column> getColumns() {
+        return columns;
+    }
+
+    /**
+     * The final restricted master problem, for the sensitivity analysis.
+     *
+     * @return the master Simplex
+     */
+    public Simplex getMaster() {
+        return master;
+    }
+
+    /**
+     * Number of master problems solved.
+     *
+     * @return the number of iterations
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+}
@@ -0,0 +1,17 @@
+package br.com.fattymeerkats.simplexaf.linearprogramming;
+
+/**
+ * The left side of the constraints, handed to the {@link Modeler} one row at a time, so a
+ * tableaux stored off the heap can be filled without the whole constraint matrix in the heap.
+ */
+public interface ConstraintRows {
+
+    /**
+     * Copy the coefficients of constraint i into the destination array.
+     * The Modeler reads each row once, in order.
+     *
+     * @param i the index of the constraint
+     * @param destination the array to fill, with at least one entry per original variable
+     */
+    void readRow(int i, double[] destination);
+}
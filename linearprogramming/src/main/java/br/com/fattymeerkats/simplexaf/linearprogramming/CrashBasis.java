@@ -0,0 +1,96 @@
+package br.com.fattymeerkats.simplexaf.linearprogramming;
+
+/**
+ * Crash procedure: choose original variables to replace the slack variables of the rows that
+ * the all-slack basis leaves infeasible (the "greaterThan" rows, whose right side is negative in
+ * the tableaux), together with the row each one replaces, for
+ * {@link Simplex#solve(Modeler, int[], int[])}. The Simplex pivots them in (see
+ * {@link Simplex#getCrashIterations()}) before the dual simplex.
+ *
+ * The dual simplex of this solver already starts from a dual feasible slack basis whenever the
+ * costs have the right sign, and the crash columns break it: on dense random models the crash
+ * and dual pivots together outnumber the dual pivots of the slack start, so the crash is opt-in
+ * and should be measured on the models at hand.
+ *
+ * The procedure reads the tableaux, so it must be called before the model is solved.
+ */
+public final class CrashBasis {
+
+    private static final double EPSILON = 1.0E-9;
+    private static final double PIVOT_TOLERANCE = 0.99; // Bixby's relative pivot threshold
+
+    private CrashBasis() {
+    }
+
+    /**
+     * Triangular crash (Bixby): sparse columns first, each one accepted for an infeasible row
+     * where it has a nearly maximal entry of the right sign and only if it is zero in every row
+     * already taken, so the crash columns form a triangular (hence nonsingular) basis.
+     *
+     * @param model the linear programming problem, not yet solved
+     * @return the crash columns in pivot order (crash[0]) and the row each one is pivoted in
+     *         (crash[1]), for {@link Simplex#solve(Modeler, int[], int[])}
+     */
+    public static int[][] triangular(Modeler model) {
+        Tableau tableaux = model.getTableau();
+        int numberOfConstraints = model.getNumberOfConstraints();
+        int numberOfOriginalVariables = model.getNumberOfOriginalVariables();
+        int rightSide = numberOfConstraints + numberOfOriginalVariables;
+
+        // columns by increasing number of nonzeros (counting sort)
+        int[] nonZeros = new int[numberOfOriginalVariables];
+        for (int i = 0; i < numberOfConstraints; i++)
+            for (int j = 0; j < numberOfOriginalVariables; j++)
+                if (tableaux.get(i, j) != 0)
+                    nonZeros[j]++;
+        int[] start = new int[numberOfConstraints + 2];
+        for (int j = 0; j < numberOfOriginalVariables; j++)
+            start[nonZeros[j] + 1]++;
+        for (int k = 1; k < start.length; k++)
+            start[k] += start[k - 1];
+        int[] order = new int[numberOfOriginalVariables];
+        for (int j = 0; j < numberOfOriginalVariables; j++)
+            order[start[nonZeros[j]]++] = j;
+
+        boolean[] taken = new boolean[numberOfConstraints];
+        int[] columns = new int[numberOfConstraints];
+        int[] rows = new int[numberOfConstraints];
+        int count = 0;
+
+        for (int k = 0; k < numberOfOriginalVariables; k++) {
+            int j = order[k];
+
+            double largest = 0;
+            boolean triangular = true;
+            for (int i = 0; i < numberOfConstraints && triangular; i++)
+                if (taken[i])
+                    triangular = tableaux.get(i, j) == 0;
+                else
+                    largest = Math.max(largest, Math.abs(tableaux.get(i, j)));
+
+            if (!triangular || largest <= EPSILON)
+                continue;
+
+            // the most infeasible row where the column is a strong pivot moving it towards feasibility
+            int r = -1;
+            for (int i = 0; i < numberOfConstraints; i++)
+                if (!taken[i] && tableaux.get(i, rightSide) < -EPSILON && tableaux.get(i, j) < 0
+                        && -tableaux.get(i, j) >= PIVOT_TOLERANCE * largest
+                        && (r == -1 || tableaux.get(i, rightSide) < tableaux.get(r, rightSide)))
+                    r = i;
+
+            if (r == -1)
+                continue;
+
+            taken[r] = true;
+            columns[count] = j;
+            rows[count++] = r;
+        }
+
+        int[][] crash = new int[2][count];
+        System.arraycopy(columns, 0, crash[0], 0, count);
+        System.arraycopy(rows, 0, crash[1], 0, count);
+        return crash;
+    }
+
+}
@@ -0,0 +1,505 @@
+package br.com.fattymeerkats.simplexaf.linearprogramming;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * This class solves block-angular linear programming problems (independent blocks tied
+ * together by a few linking constraints) using the Dantzig-Wolfe decomposition.
+ *
+ * The master problem, solved by {@link ColumnGeneration}, combines extreme points of the blocks
+ * subject to the linking constraints and one convexity constraint per block. The blocks are
+ * priced in parallel, each one by its own Simplex, so the work grows with the number of blocks
+ * (and shrinks with the number of cores) instead of with the size of the whole tableaux.
+ */
+public class DantzigWolfe {
+
+    private double[] objectiveFunction;
+    private double[][] linkingLeftSide;
+    private double[] linkingRightSide;
+    private Constraint[] linkingOperators;
+    private List<Block> blocks;
+    private ProblemKind maximizeOrMinimize;
+
+    private final double EPSILON = 1.0E-7;
+
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    // only the columns of the current master, the others are dropped at the next pricing
+    private Map<Column, double[]> points = new IdentityHashMap<Column, double[]>(); // extreme point of each column
+    private Map<Column, Block> owners = new IdentityHashMap<Column, Block>(); // block of each column
+
+    private ThreadLocal<Simplex> simplex = Workers.simplexPerThread();
+
+    private ColumnGeneration master;
+    private double[] x;
+
+    /**
+     * Returns a DantzigWolfe object for the given block structure.
+     *
+     * @param objectiveFunction the objective coefficient of each variable of the full problem
+     * @param linkingLeftSide the linking constraints, one column per variable of the full problem
+     * @param linkingRightSide the right side of each linking constraint
+     * @param linkingOperator the operator of each linking constraint
+     * @param blocks the blocks, covering every variable exactly once
+     * @param maximizeOrMinimize the problem kind
+     */
+    public DantzigWolfe(double[] objectiveFunction, double[][] linkingLeftSide,
+                        double[] linkingRightSide, Constraint[] linkingOperator,
+                        List<Block> blocks, ProblemKind maximizeOrMinimize) {
+        this.objectiveFunction = objectiveFunction;
+        this.linkingLeftSide = linkingLeftSide;
+        this.linkingRightSide = linkingRightSide;
+        this.linkingOperators = linkingOperator;
+        this.blocks = blocks;
+        this.maximizeOrMinimize = maximizeOrMinimize;
+    }
+
+    /**
+     * Detect the block structure of a problem. The constraints are added one at a time as local
+     * constraints, joining the variables they touch, except those that would join components
+     * already holding local constraints: these connect otherwise separate blocks, so they are
+     * taken as linking constraints. The result depends on the order of the constraints, so a few
+     * orders are tried and the split into at least two blocks with the fewest linking
+     * constraints is kept.
+     *
+     * @param constraintLeftSide the constraints of the full problem
+     * @param constraintRightSide the right side of each constraint
+     * @param constraintOperator the operator of each constraint
+     * @param objectiveFunction the objective coefficient of each variable
+     * @param maximizeOrMinimize the problem kind
+     * @return a DantzigWolfe object for the detected structure
+     */
+    public static DantzigWolfe detectBlocks(double[][] constraintLeftSide, double[] constraintRightSide,
+                                            Constraint[] constraintOperator, double[] objectiveFunction,
+                                            ProblemKind maximizeOrMinimize) {
+        int numberOfConstraints = constraintRightSide.length;
+        int numberOfVariables = objectiveFunction.length;
+
+        int[] nonZeros = new int[numberOfConstraints];
+        for (int i = 0; i < numberOfConstraints; i++)
+            for (int j = 0; j < numberOfVariables; j++)
+                if (constraintLeftSide[i][j] != 0)
+                    nonZeros[i]++;
+
+        // given order, reversed, sparsest first and densest first
+        int[][] orders = new int[4][numberOfConstraints];
+        for (int i = 0; i < numberOfConstraints; i++) {
+            orders[0][i] = i;
+            orders[1][i] = numberOfConstraints - 1 - i;
+        }
+        int position = 0;
+        for (int count = 0; count <= numberOfVariables; count++)
+            for (int i = 0; i < numberOfConstraints; i++)
+                if (nonZeros[i] == count) {
+                    orders[2][position] = i;
+                    orders[3][numberOfConstraints - 1 - position] = i;
+                    position++;
+                }
+
+        boolean[] linking = null;
+        int[] component = null;
+        int fewest = Integer.MAX_VALUE;
+        for (int[] order : orders) {
+            boolean[] candidate = linkingConstraints(constraintLeftSide, order, numberOfVariables);
+            int[] candidateComponent = components(constraintLeftSide, candidate, numberOfVariables);
+            int numberOfLinking = 0;
+            for (int i = 0; i < numberOfConstraints; i++)
+                if (candidate[i])
+                    numberOfLinking++;
+            if (count(candidateComponent) >= 2 && numberOfLinking < fewest
+                    && hasLocalConstraints(constraintLeftSide, candidate, candidateComponent)) {
+                linking = candidate;
+                component = candidateComponent;
+                fewest = numberOfLinking;
+            }
+        }
+
+        if (linking == null)
+            throw new IllegalArgumentException("The problem has no block-angular structure");
+
+        // variables of each block, in the order of the full problem
+        int numberOfBlocks = count(component);
+        int[] blockSize = new int[numberOfBlocks];
+        for (int j = 0; j < numberOfVariables; j++)
+            blockSize[component[j]]++;
+
+        int[][] variables = new int[numberOfBlocks][];
+        for (int k = 0; k < numberOfBlocks; k++)
+            variables[k] = new int[blockSize[k]];
+        blockSize = new int[numberOfBlocks];
+        for (int j = 0; j < numberOfVariables; j++)
+            variables[component[j]][blockSize[component[j]]++] = j;
+
+        // local constraints of each block
+        int[] localRows = new int[numberOfBlocks];
+        int[] rowBlock = new int[numberOfConstraints];
+        int numberOfLinking = 0;
+        for (int i = 0; i < numberOfConstraints; i++) {
+            if (linking[i]) {
+                numberOfLinking++;
+                continue;
+            }
+            rowBlock[i] = -1;
+            for (int j = 0; j < numberOfVariables && rowBlock[i] == -1; j++)
+                if (constraintLeftSide[i][j] != 0)
+                    rowBlock[i] = component[j];
+            if (rowBlock[i] != -1)
+                localRows[rowBlock[i]]++;
+        }
+
+        List<Block> blocks = new ArrayList<Block>();
+        for (int k = 0; k < numberOfBlocks; k++) {
+            double[][] left = new double[localRows[k]][variables[k].length];
+            double[] right = new double[localRows[k]];
+            Constraint[] operators = new Constraint[localRows[k]];
+            int r = 0;
+            for (int i = 0; i < numberOfConstraints; i++)
+                if (!linking[i] && rowBlock[i] == k) {
+                    for (int j = 0; j < variables[k].length; j++)
+                        left[r][j] = constraintLeftSide[i][variables[k][j]];
+                    right[r] = constraintRightSide[i];
+                    operators[r] = constraintOperator[i];
+                    r++;
+                }
+            blocks.add(new Block(variables[k], left, right, operators));
+        }
+
+        double[][] linkingLeftSide = new double[numberOfLinking][];
+        double[] linkingRightSide = new double[numberOfLinking];
+        Constraint[] linkingOperator = new Constraint[numberOfLinking];
+        int r = 0;
+        for (int i = 0; i < numberOfConstraints; i++)
+            if (linking[i]) {
+                linkingLeftSide[r] = constraintLeftSide[i];
+                linkingRightSide[r] = constraintRightSide[i];
+                linkingOperator[r] = constraintOperator[i];
+                r++;
+            }
+
+        return new DantzigWolfe(objectiveFunction, linkingLeftSide, linkingRightSide,
+                linkingOperator, blocks, maximizeOrMinimize);
+    }
+
+    /**
+     * Add the constraints in the given order, joining the components of their variables, and
+     * mark as linking those that would join two components already holding local constraints.
+     *
+     * @return linking[i] = if constraint i links blocks
+     */
+    private static boolean[] linkingConstraints(double[][] constraintLeftSide, int[] order, int numberOfVariables) {
+        int[] parent = new int[numberOfVariables];
+        for (int j = 0; j < numberOfVariables; j++)
+            parent[j] = j;
+        boolean[] local = new boolean[numberOfVariables]; // local[root] = if the component has local constraints
+        boolean[] linking = new boolean[constraintLeftSide.length];
+
+        for (int i : order) {
+            double[] row = constraintLeftSide[i];
+
+            int established = -1;
+            for (int j = 0; j < numberOfVariables && !linking[i]; j++)
+                if (row[j] != 0 && local[find(parent, j)]) {
+                    if (established == -1)
+                        established = find(parent, j);
+                    else if (find(parent, j) != established)
+                        linking[i] = true;
+                }
+            if (linking[i])
+                continue;
+
+            int first = -1;
+            for (int j = 0; j < numberOfVariables; j++)
+                if (row[j] != 0) {
+                    if (first == -1)
+                        first = j;
+                    else
+                        parent[find(parent, j)] = find(parent, first);
+                }
+            if (first != -1)
+                local[find(parent, first)] = true;
+        }
+        return linking;
+    }
+
+    /**
+     * Check that every block has at least one local constraint.
+     */
+    private static boolean hasLocalConstraints(double[][] constraintLeftSide, boolean[] linking, int[] component) {
+        boolean[] hasLocal = new boolean[count(component)];
+        for (int i = 0; i < constraintLeftSide.length; i++)
+            if (!linking[i])
+                for (int j = 0; j < component.length; j++)
+                    if (constraintLeftSide[i][j] != 0) {
+                        hasLocal[component[j]] = true;
+                        break;
+                    }
+        for (boolean b : hasLocal)
+            if (!b)
+                return false;
+        return true;
+    }
+
+    /**
+     * Label the connected components of the variables, two variables being connected
+     * when they appear together in a non-linking constraint.
+     *
+     * @return component[j] = component of variable j, numbered from 0
+     */
+    private static int[] components(double[][] constraintLeftSide, boolean[] linking, int numberOfVariables) {
+        int[] parent = new int[numberOfVariables];
+        for (int j = 0; j < numberOfVariables; j++)
+            parent[j] = j;
+
+        for (int i = 0; i < constraintLeftSide.length; i++) {
+            if (linking[i])
+                continue;
+            int first = -1;
+            for (int j = 0; j < numberOfVariables; j++)
+                if (constraintLeftSide[i][j] != 0) {
+                    if (first == -1)
+                        first = j;
+                    else
+                        parent[find(parent, j)] = find(parent, first);
+                }
+        }
+
+        int[] label = new int[numberOfVariables];
+        for (int j = 0; j < numberOfVariables; j++)
+            label[j] = -1;
+        int[] component = new int[numberOfVariables];
+        int next = 0;
+        for (int j = 0; j < numberOfVariables; j++) {
+            int root = find(parent, j);
+            if (label[root] == -1)
+                label[root] = next++;
+            component[j] = label[root];
+        }
+        return component;
+    }
+
+    private static int find(int[] parent, int j) {
+        while (parent[j] != j) {
+            parent[j] = parent[parent[j]];
+            j = parent[j];
+        }
+        return j;
+    }
+
+    private static int count(int[] component) {
+        int max = -1;
+        for (int j = 0; j < component.length; j++)
+            max = Math.max(max, component[j]);
+        return max + 1;
+    }
+
+    public void setThreads(int threads) { this.threads = threads; }
+
+    /**
+     * Solve the problem, pricing the blocks in a pool of worker threads.
+     */
+    public void solve() {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            int numberOfLinking = linkingRightSide.length;
+
+            double[] masterRightSide = new double[numberOfLinking + blocks.size()];
+            Constraint[] masterOperators = new Constraint[numberOfLinking + blocks.size()];
+            for (int i = 0; i < numberOfLinking; i++) {
+                masterRightSide[i] = linkingRightSide[i];
+                masterOperators[i] = linkingOperators[i];
+            }
+            for (int k = 0; k < blocks.size(); k++) {
+                masterRightSide[numberOfLinking + k] = 1; // convexity constraint
+                masterOperators[numberOfLinking + k] = Constraint.equal;
+            }
+
+            List<Column> artificial = artificialColumns();
+            List<Column> initialColumns = new ArrayList<Column>(artificial);
+            initialColumns.addAll(price(executor, new double[masterRightSide.length]));
+
+            final ExecutorService pool = executor;
+            master = new ColumnGeneration(masterRightSide, masterOperators, maximizeOrMinimize,
+                    initialColumns, new PricingCallback() {
+                        @Override
+                        public List<Column> price(double[] dual) {
+                            forgetPurgedColumns();
+                            return DantzigWolfe.this.price(pool, dual);
+                        }
+                    });
+            master.solve();
+        } finally {
+            executor.shutdown();
+        }
+
+        List<Column> columns = master.getColumns();
+        double[] lambda = master.primal();
+
+        x = new double[objectiveFunction.length];
+        for (int p = 0; p < columns.size(); p++) {
+            Block block = owners.get(columns.get(p));
+            if (block == null) {
+                if (lambda[p] > EPSILON)
+                    throw new ArithmeticException("Linear program is infeasible");
+                continue;
+            }
+            double[] point = points.get(columns.get(p));
+            int[] variables = block.getVariables();
+            for (int j = 0; j < variables.length; j++)
+                x[variables[j]] += lambda[p] * point[j];
+        }
+    }
+
+    /**
+     * One column per linking constraint with a prohibitive cost, so that the first master
+     * problem is feasible whatever extreme points the blocks start with (big-M method).
+     */
+    private List<Column> artificialColumns() {
+        int numberOfRows = linkingRightSide.length + blocks.size();
+
+        double bigM = 0;
+        for (int j = 0; j < objectiveFunction.length; j++)
+            bigM = Math.max(bigM, Math.abs(objectiveFunction[j]));
+        bigM = 1.0E7 * (1 + bigM);
+        if (maximizeOrMinimize.equals(ProblemKind.MAXIMIZE))
+            bigM = -bigM;
+
+        List<Column> artificial = new ArrayList<Column>();
+        for (int i = 0; i < linkingRightSide.length; i++) {
+            if (!linkingOperators[i].equals(Constraint.lessThan)) {
+                double[] a = new double[numberOfRows];
+                a[i] = 1;
+                artificial.add(new Column(bigM, a));
+            }
+            if (!linkingOperators[i].equals(Constraint.greaterThan)) {
+                double[] a = new double[numberOfRows];
+                a[i] = -1;
+                artificial.add(new Column(bigM, a));
+            }
+        }
+        return artificial;
+    }
+
+    /**
+     * Solve every block subproblem with the costs adjusted by the linking dual values,
+     * returning one extreme point column per block.
+     */
+    private List<Column> price(ExecutorService executor, final double[] dual) {
+        List<Future<double[]>> futures = new ArrayList<Future<double[]>>();
+        for (final Block block : blocks)
+            futures.add(executor.submit(new Callable<double[]>() {
+                @Override
+                public double[] call() {
+                    return solveBlock(block, dual);
+                }
+            }));
+
+        List<Column> columns = new ArrayList<Column>();
+        for (int k = 0; k < blocks.size(); k++) {
+            double[] point = Workers.get(futures.get(k));
+            Column column = blockColumn(k, point);
+            points.put(column, point);
+            owners.put(column, blocks.get(k));
+            columns.add(column);
+        }
+        return columns;
+    }
+
+    /**
+     * Drop the extreme points of the columns no longer in the master (purged by the column
+     * generation, or priced but not improving), so they don't outlive the master columns.
+     */
+    private void forgetPurgedColumns() {
+        Map<Column, Boolean> current = new IdentityHashMap<Column, Boolean>();
+        for (Column column : master.getColumns())
+            current.put(column, Boolean.TRUE);
+        points.keySet().retainAll(current.keySet());
+        owners.keySet().retainAll(current.keySet());
+    }
+
+    /**
+     * Optimize the block over its local constraints with cost c_j - dual'A_j.
+     *
+     * @return the optimal extreme point of the block
+     */
+    private double[] solveBlock(Block block, double[] dual) {
+        int[] variables = block.getVariables();
+
+        double[] cost = new double[variables.length];
+        for (int j = 0; j < variables.length; j++) {
+            cost[j] = objectiveFunction[variables[j]];
+            for (int i = 0; i < linkingRightSide.length; i++)
+                cost[j] -= dual[i] * linkingLeftSide[i][variables[j]];
+        }
+
+        Modeler model = new Modeler(block.getConstraintLeftSide(), block.getConstraintRightSide(),
+                block.getConstraintOperators(), cost, maximizeOrMinimize);
+        Simplex blockSimplex = simplex.get();
+        blockSimplex.solve(model);
+        double[] solution = blockSimplex.primal();
+
+        double[] point = new double[variables.length];
+        System.arraycopy(solution, 0, point, 0, variables.length);
+        return point;
+    }
+
+    /**
+     * Build the master column of an extreme point of block k.
+     */
+    private Column blockColumn(int k, double[] point) {
+        int numberOfLinking = linkingRightSide.length;
+        int[] variables = blocks.get(k).getVariables();
+
+        double cost = 0;
+        double[] a = new double[numberOfLinking + blocks.size()];
+        for (int j = 0; j < variables.length; j++) {
+            cost += objectiveFunction[variables[j]] * point[j];
+            for (int i = 0; i < numberOfLinking; i++)
+                a[i] += linkingLeftSide[i][variables[j]] * point[j];
+        }
+        a[numberOfLinking + k] = 1;
+
+        return new Column(cost, a);
+    }
+
+    /**
+     * Optimal value of the problem.
+     *
+     * @return the optimal objective value
+     */
+    public double value() {
+        double value = 0;
+        for (int j = 0; j < objectiveFunction.length; j++)
+            value += objectiveFunction[j] * x[j];
+        return value;
+    }
+
+    /**
+     * The solution values of each variable of the full problem.
+     *
+     * @return the primal solution vector.
+     */
+    public double[] primal() {
+        return x.clone();
+    }
+
+    /**
+     * Number of master problems solved.
+     *
+     * @return the number of iterations
+     */
+    public int getIterations() {
+        return master.getIterations();
+    }
+
+    public List<Block> getBlocks() {
+        return blocks;
+    }
+
+}
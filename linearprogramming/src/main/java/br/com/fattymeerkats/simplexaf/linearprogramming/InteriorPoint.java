@@ -0,0 +1,484 @@
+package br.com.fattymeerkats.simplexaf.linearprogramming;
+
+/**
+ * This class solves a linear programming problem using the primal-dual interior point method
+ * (Mehrotra predictor-corrector), solving the normal equations with a dense Cholesky factorization.
+ *
+ * The problem is read from the Modeler tableaux in the standard form min c'x, Ax = b, x >= 0,
+ * where A = [A0 I]: the columns of the original variables followed by the identity block of
+ * the slack variables. A0 is read in place from the tableaux, one row at a time, so a tableaux
+ * kept off the heap is never copied into it; the identity block is applied implicitly, so
+ * A D A' = A0 D0 A0' + diag(D_s) costs one pass over A0 per row pair. The m x m normal matrix
+ * and the vectors of the method stay in the heap.
+ * The tableaux is not modified, so the same model can later be handed to {@link #crossover()}.
+ */
+public class InteriorPoint implements LinearSolver {
+
+    private Modeler model;
+    private int numberOfConstraints;
+    private int numberOfOriginalVariables;
+    private int numberOfColumns;
+    private ProblemKind maximizeOrMinimize;
+    private Constraint[] constraintOperators;
+    private Constraint[] rowOperators; // operator of each tableaux row (an equal constraint has two rows)
+
+    private final int MAX_ITERATIONS = 200;
+    private final double TOLERANCE = 1.0E-9;
+    private final double STEP_FACTOR = 0.995;
+    private final double DIVERGENCE = 1.0E12;
+
+    private Tableau tableaux; // row i starts with the coefficients of the original variables (A0)
+    private double[][] heap; // the tableaux array, when it is stored in the heap
+    private double[] rowBuffer; // row of an off-heap tableaux
+    private double[] b; // b[i] = right side of row i
+    private double[] c; // c[j] = cost of variable j
+
+    private double[] x; // primal variables
+    private double[] y; // dual variables of the rows
+    private double[] s; // dual slacks (reduced costs)
+
+    private double[][] normal; // Cholesky factor of A D A'
+    private double[] scaledRow; // row of A0 D0, while building A D A'
+    private double[] work; // column vector, while computing a direction
+
+    private int iterations;
+
+    /**
+     * Returns an InteriorPoint object, solving the linear programming problem.
+     *
+     * @param model the linear programming problem modeled as a MINIMIZATION problem.
+     */
+    public InteriorPoint(Modeler model) {
+
+        this.model = model;
+        this.numberOfConstraints = model.getNumberOfConstraints();
+        this.numberOfOriginalVariables = model.getNumberOfOriginalVariables();
+        this.numberOfColumns = numberOfOriginalVariables + numberOfConstraints;
+        this.maximizeOrMinimize = model.getProblemKind();
+        this.constraintOperators = model.getConstraintOperators();
+
+        rowOperators = new Constraint[numberOfConstraints];
+        for (int i = 0, k = 0; i < constraintOperators.length; i++, k++) {
+            rowOperators[k] = constraintOperators[i];
+            if (constraintOperators[i].equals(Constraint.equal))
+                rowOperators[++k] = constraintOperators[i];
+        }
+
+        tableaux = model.getTableau();
+        if (tableaux instanceof ArrayTableau)
+            heap = ((ArrayTableau) tableaux).getArray();
+        else
+            rowBuffer = new double[numberOfColumns + 1];
+
+        b = new double[numberOfConstraints];
+        for (int i = 0; i < numberOfConstraints; i++)
+            b[i] = tableaux.get(i, numberOfColumns);
+
+        c = new double[numberOfColumns];
+        for (int j = 0; j < numberOfColumns; j++)
+            c[j] = tableaux.get(numberOfConstraints, j);
+
+        x = new double[numberOfColumns];
+        y = new double[numberOfConstraints];
+        s = new double[numberOfColumns];
+        normal = new double[numberOfConstraints][numberOfConstraints];
+        scaledRow = new double[numberOfOriginalVariables];
+        work = new double[numberOfColumns];
+
+        solve();
+    }
+
+    /**
+     * Run the predictor-corrector iterations starting from Mehrotra's initial point.
+     */
+    private void solve() {
+
+        startingPoint();
+
+        double[] rb = new double[numberOfConstraints];
+        double[] rc = new double[numberOfColumns];
+        double[] rxs = new double[numberOfColumns];
+        double[] d = new double[numberOfColumns];
+
+        double[] dxAff = new double[numberOfColumns];
+        double[] dyAff = new double[numberOfConstraints];
+        double[] dsAff = new double[numberOfColumns];
+
+        double[] dx = new double[numberOfColumns];
+        double[] dy = new double[numberOfConstraints];
+        double[] ds = new double[numberOfColumns];
+
+        double normB = 1 + norm(b);
+        double normC = 1 + norm(c);
+
+        for (iterations = 0; iterations < MAX_ITERATIONS; iterations++) {
+
+            // residuals rb = Ax - b, rc = A'y + s - c
+            multiply(x, rb);
+            for (int i = 0; i < numberOfConstraints; i++)
+                rb[i] -= b[i];
+            multiplyTransposed(y, rc);
+            for (int j = 0; j < numberOfColumns; j++)
+                rc[j] += s[j] - c[j];
+
+            double mu = dot(x, s) / numberOfColumns;
+            double primalObjective = dot(c, x);
+            double dualObjective = dot(b, y);
+
+            if (norm(rb) / normB < TOLERANCE && norm(rc) / normC < TOLERANCE
+                    && Math.abs(primalObjective - dualObjective) / (1 + Math.abs(primalObjective)) < TOLERANCE)
+                return; // optimal
+
+            if (norm(x) > DIVERGENCE || norm(y) > DIVERGENCE)
+                throw new ArithmeticException("Linear program is infeasible or unbounded");
+
+            // factor A D A' with D = X / S
+            for (int j = 0; j < numberOfColumns; j++)
+                d[j] = x[j] / s[j];
+            factorNormalEquations(d);
+
+            // PREDICTOR (affine scaling direction)
+            for (int j = 0; j < numberOfColumns; j++)
+                rxs[j] = -x[j] * s[j];
+            direction(d, rb, rc, rxs, dxAff, dyAff, dsAff);
+
+            double alphaPrimal = stepLength(x, dxAff);
+            double alphaDual = stepLength(s, dsAff);
+
+            double muAff = 0;
+            for (int j = 0; j < numberOfColumns; j++)
+                muAff += (x[j] + alphaPrimal * dxAff[j]) * (s[j] + alphaDual * dsAff[j]);
+            muAff /= numberOfColumns;
+
+            double sigma = Math.pow(muAff / mu, 3);
+
+            // CORRECTOR (centering and second order term)
+            for (int j = 0; j < numberOfColumns; j++)
+                rxs[j] = -x[j] * s[j] - dxAff[j] * dsAff[j] + sigma * mu;
+            direction(d, rb, rc, rxs, dx, dy, ds);
+
+            alphaPrimal = Math.min(1.0, STEP_FACTOR * stepLength(x, dx));
+            alphaDual = Math.min(1.0, STEP_FACTOR * stepLength(s, ds));
+
+            for (int j = 0; j < numberOfColumns; j++) {
+                x[j] += alphaPrimal * dx[j];
+                s[j] += alphaDual * ds[j];
+            }
+            for (int i = 0; i < numberOfConstraints; i++)
+                y[i] += alphaDual * dy[i];
+        }
+
+        throw new ArithmeticException("Interior point method did not converge");
+    }
+
+    /**
+     * Compute Mehrotra's starting point: the least squares solutions of Ax = b and A'y + s = c,
+     * shifted to be strictly positive and well centered.
+     */
+    private void startingPoint() {
+        double[] ones = new double[numberOfColumns];
+        for (int j = 0; j < numberOfColumns; j++)
+            ones[j] = 1.0;
+        factorNormalEquations(ones);
+
+        // x = A'(AA')^-1 b
+        double[] w = b.clone();
+        choleskySolve(w);
+        multiplyTransposed(w, x);
+
+        // y = (AA')^-1 Ac, s = c - A'y
+        multiply(c, y);
+        choleskySolve(y);
+        multiplyTransposed(y, s);
+        for (int j = 0; j < numberOfColumns; j++)
+            s[j] = c[j] - s[j];
+
+        double shiftX = 0, shiftS = 0;
+        for (int j = 0; j < numberOfColumns; j++) {
+            shiftX = Math.max(shiftX, -1.5 * x[j]);
+            shiftS = Math.max(shiftS, -1.5 * s[j]);
+        }
+        for (int j = 0; j < numberOfColumns; j++) {
+            x[j] += shiftX;
+            s[j] += shiftS;
+        }
+
+        double xs = dot(x, s);
+        double sumX = 0, sumS = 0;
+        for (int j = 0; j < numberOfColumns; j++) {
+            sumX += x[j];
+            sumS += s[j];
+        }
+        double correctionX = sumS > 0 ? 0.5 * xs / sumS : 0;
+        double correctionS = sumX > 0 ? 0.5 * xs / sumX : 0;
+        for (int j = 0; j < numberOfColumns; j++) {
+            x[j] = Math.max(x[j] + correctionX, 1.0);
+            s[j] = Math.max(s[j] + correctionS, 1.0);
+        }
+    }
+
+    /**
+     * Solve the Newton system
+     *      A dx = -rb,  A'dy + ds = -rc,  S dx + X ds = rxs
+     * through the normal equations A D A' dy = -rb - A (rxs / s + D rc), using the current factorization.
+     */
+    private void direction(double[] d, double[] rb, double[] rc, double[] rxs,
+                           double[] dx, double[] dy, double[] ds) {
+        for (int j = 0; j < numberOfColumns; j++)
+            work[j] = rxs[j] / s[j] + d[j] * rc[j];
+        multiply(work, dy);
+        for (int i = 0; i < numberOfConstraints; i++)
+            dy[i] = -rb[i] - dy[i];
+        choleskySolve(dy);
+
+        multiplyTransposed(dy, ds);
+        for (int j = 0; j < numberOfColumns; j++) {
+            ds[j] = -rc[j] - ds[j];
+            dx[j] = (rxs[j] - x[j] * ds[j]) / s[j];
+        }
+    }
+
+    /**
+     * Row i of the tableaux, whose first numberOfOriginalVariables entries are row i of A0.
+     * A heap tableaux row is used in place; other storages copy it into a buffer that is
+     * overwritten by the next call.
+     */
+    private double[] row(int i) {
+        if (heap != null)
+            return heap[i];
+        tableaux.readRow(i, rowBuffer);
+        return rowBuffer;
+    }
+
+    /**
+     * out = A v = A0 v0 + v_s, walking A0 by rows.
+     */
+    private void multiply(double[] v, double[] out) {
+        for (int i = 0; i < numberOfConstraints; i++) {
+            double[] row = row(i);
+            double sum = v[numberOfOriginalVariables + i];
+            for (int j = 0; j < numberOfOriginalVariables; j++)
+                sum += row[j] * v[j];
+            out[i] = sum;
+        }
+    }
+
+    /**
+     * out = A'w = (A0'w, w), accumulating the rows of A0 scaled by w.
+     */
+    private void multiplyTransposed(double[] w, double[] out) {
+        for (int j = 0; j < numberOfOriginalVariables; j++)
+            out[j] = 0;
+        for (int i = 0; i < numberOfConstraints; i++) {
+            double[] row = row(i);
+            double factor = w[i];
+            if (factor != 0)
+                for (int j = 0; j < numberOfOriginalVariables; j++)
+                    out[j] += factor * row[j];
+            out[numberOfOriginalVariables + i] = factor;
+        }
+    }
+
+    /**
+     * Build A D A' and overwrite its lower triangle with the Cholesky factor L (A D A' = L L').
+     * Tiny pivots (from degenerate or duplicated rows) are regularized instead of failing.
+     *
+     * @param d the diagonal scaling of the columns
+     */
+    private void factorNormalEquations(double[] d) {
+        // A0 D0 A0' + diag(D_s)
+        for (int i = 0; i < numberOfConstraints; i++) {
+            double[] row = row(i);
+            for (int j = 0; j < numberOfOriginalVariables; j++)
+                scaledRow[j] = row[j] * d[j];
+            for (int k = 0; k <= i; k++)
+                normal[i][k] = dot(scaledRow, row(k), numberOfOriginalVariables);
+            normal[i][i] += d[numberOfOriginalVariables + i];
+        }
+
+        for (int k = 0; k < numberOfConstraints; k++) {
+            double pivot = normal[k][k] - dot(normal[k], normal[k], k);
+            if (pivot <= TOLERANCE * TOLERANCE)
+                pivot = 1.0 / TOLERANCE;
+            pivot = Math.sqrt(pivot);
+            normal[k][k] = pivot;
+
+            for (int i = k + 1; i < numberOfConstraints; i++)
+                normal[i][k] = (normal[i][k] - dot(normal[i], normal[k], k)) / pivot;
+        }
+    }
+
+    /**
+     * Solve L L' v = r in place using the current factorization.
+     *
+     * @param v the right side, replaced by the solution
+     */
+    private void choleskySolve(double[] v) {
+        for (int i = 0; i < numberOfConstraints; i++) {
+            double sum = v[i];
+            for (int j = 0; j < i; j++)
+                sum -= normal[i][j] * v[j];
+            v[i] = sum / normal[i][i];
+        }
+        for (int i = numberOfConstraints - 1; i >= 0; i--) {
+            double sum = v[i];
+            for (int j = i + 1; j < numberOfConstraints; j++)
+                sum -= normal[j][i] * v[j];
+            v[i] = sum / normal[i][i];
+        }
+    }
+
+    /**
+     * Largest step in [0, 1] keeping v + alpha * dv non-negative.
+     */
+    private double stepLength(double[] v, double[] dv) {
+        double alpha = 1.0;
+        for (int j = 0; j < v.length; j++)
+            if (dv[j] < 0)
+                alpha = Math.min(alpha, -v[j] / dv[j]);
+        return alpha;
+    }
+
+    private static double dot(double[] u, double[] v) {
+        return dot(u, v, u.length);
+    }
+
+    /**
+     * Dot product of the first length entries, with four independent partial sums so the
+     * multiplications of consecutive entries don't wait for each other.
+     */
+    private static double dot(double[] u, double[] v, int length) {
+        double sum0 = 0, sum1 = 0, sum2 = 0, sum3 = 0;
+        int i = 0;
+        for (; i + 3 < length; i += 4) {
+            sum0 += u[i] * v[i];
+            sum1 += u[i + 1] * v[i + 1];
+            sum2 += u[i + 2] * v[i + 2];
+            sum3 += u[i + 3] * v[i + 3];
+        }
+        for (; i < length; i++)
+            sum0 += u[i] * v[i];
+        return (sum0 + sum1) + (sum2 + sum3);
+    }
+
+    private static double norm(double[] v) {
+        return Math.sqrt(dot(v, v));
+    }
+
+    /**
+     * Optimal value of the problem.
+     *
+     * @return the optimal objective value
+     */
+    public double value() {
+        double solution = dot(c, x);
+
+        if (maximizeOrMinimize.equals(ProblemKind.MAXIMIZE))
+            return - solution;
+
+        return solution;
+    }
+
+    /**
+     * The solution values of each variable.
+     *
+     * @return the primal solution vector.
+     */
+    public double[] primal() {
+        return x.clone();
+    }
+
+    /**
+     * The dual values (shadow prices) of each original constraint, with the same signs as
+     * {@link Simplex#dual()}.
+     *
+     * @return the dual solution vector.
+     */
+    public double[] dual() {
+        double[] dual = new double[constraintOperators.length];
+        int k = 0;
+        for (int i = 0; i < constraintOperators.length; i++) {
+            switch (constraintOperators[i]) {
+                case greaterThan:
+                    dual[i] = - y[k];
+                    break;
+                case lessThan:
+                    dual[i] = y[k];
+                    break;
+                case equal:
+                    dual[i] = y[k] - y[k + 1];
+                    k++;
+                    break;
+            }
+            k++;
+        }
+
+        if (maximizeOrMinimize.equals(ProblemKind.MAXIMIZE))
+            for (int i = 0; i < constraintOperators.length; i++)
+                dual[i] = - dual[i];
+
+        return dual;
+    }
+
+    /**
+     * Number of predictor-corrector iterations performed.
+     *
+     * @return the number of iterations
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * Calculate how much of each constraint is being used (original r.h. value - slack).
+     * Note: slack = waste/leftover
+     *
+     * @param solutionVector the solution values of each variable
+     * @return a vector describing how much of each constraint is being used
+     */
+    public double[] constraintsFinalValues(double[] solutionVector) {
+        double[] v = new double[numberOfConstraints];
+        for (int i = 0; i < numberOfConstraints; i++)
+            if (rowOperators[i].equals(Constraint.greaterThan))
+                v[i] = - b[i] - solutionVector[numberOfOriginalVariables + i];
+            else
+                v[i] = b[i] - solutionVector[numberOfOriginalVariables + i];
+
+        return v;
+    }
+
+    /**
+     * Crossover to a basic optimal solution: the columns whose primal value dominates its reduced
+     * cost are pivoted into the basis of a Simplex, which then finishes with a few pivots.
+     * The returned Simplex supports the sensitivity analysis methods.
+     * Note: the Simplex works on the model tableaux, so the crossover can be done only once.
+     *
+     * @return the Simplex holding an optimal basic solution
+     */
+    public Simplex crossover() {
+        int[] order = new int[numberOfColumns];
+        int count = 0;
+        for (int j = 0; j < numberOfColumns; j++)
+            if (x[j] > s[j])
+                order[count++] = j;
+
+        // most strongly basic columns first (insertion sort, count is at most numberOfColumns)
+        for (int k = 1; k < count; k++) {
+            int column = order[k];
+            int l = k - 1;
+            while (l >= 0 && x[order[l]] / (x[order[l]] + s[order[l]]) < x[column] / (x[column] + s[column])) {
+                order[l + 1] = order[l];
+                l--;
+            }
+            order[l + 1] = column;
+        }
+
+        int[] columns = new int[count];
+        System.arraycopy(order, 0, columns, 0, count);
+
+        Simplex simplex = new Simplex();
+        simplex.solve(model, columns);
+        return simplex;
+    }
+
+}
@@ -0,0 +1,31 @@
+package br.com.fattymeerkats.simplexaf.linearprogramming;
+
+/**
+ * Common interface of the linear programming solvers. Every implementation consumes the
+ * MINIMIZATION form built by {@link Modeler} and exposes the solution in the same layout
+ * (original variables first, then one slack per tableaux row).
+ */
+public interface LinearSolver {
+
+    /**
+     * Optimal value of the problem.
+     *
+     * @return the optimal objective value
+     */
+    double value();
+
+    /**
+     * The solution values of each variable.
+     *
+     * @return the primal solution vector.
+     */
+    double[] primal();
+
+    /**
+     * Calculate how much of each constraint is being used (original r.h. value - slack).
+     *
+     * @param solutionVector the solution values of each variable
+     * @return a vector describing how much of each constraint is being used
+     */
+    double[] constraintsFinalValues(double[] solutionVector);
+}
@@ -0,0 +1,44 @@
+package br.com.fattymeerkats.simplexaf.linearprogramming;
+
+/**
+ * Chooses the solver used for each problem.
+ */
+public final class LinearSolvers {
+
+    private LinearSolvers() {
+    }
+
+    /**
+     * Solve the linear programming problem with the chosen method.
+     *
+     * @param model the linear programming problem modeled as a MINIMIZATION problem.
+     * @param kind the solving method
+     * @return the solved problem
+     */
+    public static LinearSolver solve(Modeler model, SolverKind kind) {
+        return solve(model, kind, false);
+    }
+
+    /**
+     * Solve the linear programming problem with the chosen method.
+     *
+     * @param model the linear programming problem modeled as a MINIMIZATION problem.
+     * @param kind the solving method
+     * @param crossover if the interior point solution must be converted to a basic one
+     *                  (needed by the sensitivity analysis); ignored by the Simplex
+     * @return the solved problem
+     */
+    public static LinearSolver solve(Modeler model, SolverKind kind, boolean crossover) {
+        switch (kind) {
+            case INTERIOR_POINT:
+                InteriorPoint interiorPoint = new InteriorPoint(model);
+                if (crossover)
+                    return interiorPoint.crossover();
+                return interiorPoint;
+            default:
+                Simplex simplex = new Simplex();
+                simplex.solve(model);
+                return simplex;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package br.com.fattymeerkats.simplexaf.linearprogramming;
+
+import java.io.IOException;
+
+/**
+ * Created by fzschornack on 16/09/15.
+ *
+ * This class models any linear problem and transforms it in the Standard Minimization form.
+ */
+public class Modeler {
+    private Tableau a; // tableaux
+    private int numberOfConstraints;
+    private int numberOfOriginalVariables;
+    private int equals_count;
+    private Constraint[] constraintOperators;
+
+    private ProblemKind maximizeOrMinimize;
+
+    private TableauStorage storage;
+    private double[] rowBuffer = new double[0]; // constraint read from a ConstraintRows
+
+    /**
+     * Returns an empty Modeler, whose heap tableaux is filled by each call of {@link #reload}.
+     */
+    public Modeler() {
+        this.storage = TableauStorage.HEAP;
+    }
+
+    public Modeler(double[][] constraintLeftSide,
+                   double[] constraintRightSide, Constraint[] constraintOperator,
+                   double[] objectiveFunction, ProblemKind maximizeOrMinimize) {
+        this(constraintLeftSide, constraintRightSide, constraintOperator, objectiveFunction,
+                maximizeOrMinimize, TableauStorage.HEAP);
+    }
+
+    /**
+     * Model the problem, storing the tableaux in the given storage.
+     * The constraint matrix is still an array in the heap; use the {@link ConstraintRows}
+     * constructor to keep the whole problem off the heap.
+     */
+    public Modeler(double[][] constraintLeftSide,
+                   double[] constraintRightSide, Constraint[] constraintOperator,
+                   double[] objectiveFunction, ProblemKind maximizeOrMinimize,
+                   TableauStorage storage) {
+        this.storage = storage;
+        load(constraintLeftSide, null, constraintRightSide, constraintOperator, objectiveFunction,
+                maximizeOrMinimize);
+    }
+
+    /**
+     * Model the problem, reading the constraints row by row into a tableaux in the given storage.
+     * Off-heap storages then allow tableaux larger than the Java heap: only the right side,
+     * the objective function and one row of coefficients are held in the heap.
+     */
+    public Modeler(ConstraintRows constraintLeftSide,
+                   double[] constraintRightSide, Constraint[] constraintOperator,
+                   double[] objectiveFunction, ProblemKind maximizeOrMinimize,
+                   TableauStorage storage) {
+        this.storage = storage;
+        load(null, constraintLeftSide, constraintRightSide, constraintOperator, objectiveFunction,
+                maximizeOrMinimize);
+    }
+
+    /**
+     * Model another problem in place of the current one. A heap tableaux is overwritten and only
+     * grows when the new problem doesn't fit, so a loop that reloads and solves one Modeler stops
+     * allocating once it has seen its largest problem; an off-heap tableaux is allocated again.
+     */
+    public void reload(double[][] constraintLeftSide,
+                       double[] constraintRightSide, Constraint[] constraintOperator,
+                       double[] objectiveFunction, ProblemKind maximizeOrMinimize) {
+        load(constraintLeftSide, null, constraintRightSide, constraintOperator, objectiveFunction,
+                maximizeOrMinimize);
+    }
+
+    /**
+     * Model another problem in place of the current one, reading the constraints row by row.
+     *
+     * @see #reload(double[][], double[], Constraint[], double[], ProblemKind)
+     */
+    public void reload(ConstraintRows constraintLeftSide,
+                       double[] constraintRightSide, Constraint[] constraintOperator,
+                       double[] objectiveFunction, ProblemKind maximizeOrMinimize) {
+        load(null, constraintLeftSide, constraintRightSide, constraintOperator, objectiveFunction,
+                maximizeOrMinimize);
+    }
+
+    /**
+     * Fill the tableaux, taking the constraints from the array or, when it is null, from the rows.
+     */
+    private void load(double[][] constraintLeftSide, ConstraintRows constraintRows,
+                      double[] constraintRightSide, Constraint[] constraintOperator,
+                      double[] objectiveFunction, ProblemKind maximizeOrMinimize) {
+
+        this.maximizeOrMinimize = maximizeOrMinimize;
+
+        this.constraintOperators = constraintOperator;
+
+        numberOfConstraints = constraintRightSide.length;
+        numberOfOriginalVariables = objectiveFunction.length;
+
+        // count the number of "equal" constraints (which means 1 more row in the tableaux)
+        equals_count = 0;
+        for (int i = 0; i < numberOfConstraints; i++)
+            if (constraintOperator[i] == Constraint.equal)
+                equals_count++;
+
+        // create the tableaux, or reuse the heap one
+        int rows = numberOfConstraints + equals_count + 1;
+        int columns = numberOfOriginalVariables + numberOfConstraints + equals_count + 1;
+        if (a instanceof ArrayTableau)
+            ((ArrayTableau) a).reshape(rows, columns);
+        else
+            a = createTableau(storage, rows, columns);
+
+        if (constraintRows != null && rowBuffer.length < numberOfOriginalVariables)
+            rowBuffer = new double[numberOfOriginalVariables];
+
+        // initialize the constraints
+        int k = 0;
+        for (int i = 0; i < numberOfConstraints; i++) {
+            double[] row;
+            if (constraintRows == null)
+                row = constraintLeftSide[i];
+            else {
+                constraintRows.readRow(i, rowBuffer);
+                row = rowBuffer;
+            }
+            switch (constraintOperator[i]) {
+                case greaterThan:
+                    for (int j = 0; j < numberOfOriginalVariables; j++)
+                        a.set(k, j, -row[j]);
+                    break;
+                case lessThan:
+                    for (int j = 0; j < numberOfOriginalVariables; j++)
+                        a.set(k, j, row[j]);
+                    break;
+                case equal:
+                    for (int j = 0; j < numberOfOriginalVariables; j++) {
+                        a.set(k, j, row[j]);
+                        a.set(k + 1, j, -row[j]);
+                    }
+                    k++;
+                    break;
+            }
+            k++;
+        }
+
+        // initialize the constraints right side
+        k = 0;
+        for (int i = 0; i < numberOfConstraints; i++) {
+            switch (constraintOperator[i]) {
+                case greaterThan:
+                    a.set(k, numberOfConstraints + numberOfOriginalVariables + equals_count, -constraintRightSide[i]);
+                    break;
+                case lessThan:
+                    a.set(k, numberOfConstraints + numberOfOriginalVariables + equals_count, constraintRightSide[i]);
+                    break;
+                case equal:
+                    a.set(k, numberOfConstraints + numberOfOriginalVariables + equals_count, constraintRightSide[i]);
+                    a.set(k + 1, numberOfConstraints + numberOfOriginalVariables + equals_count, -constraintRightSide[i]);
+                    k++;
+                    break;
+            }
+            k++;
+        }
+
+        // initialize the slack variables
+        int slack = 1;
+        for (int i = 0; i < numberOfConstraints + equals_count; i++) {
+            a.set(i, numberOfOriginalVariables + i, slack);
+        }
+
+        // initialize the objective function
+        for (int j = 0; j < numberOfOriginalVariables; j++)
+            if (this.maximizeOrMinimize == ProblemKind.MAXIMIZE)
+                a.set(numberOfConstraints + equals_count, j, -objectiveFunction[j]);
+            else
+                a.set(numberOfConstraints + equals_count, j, objectiveFunction[j]);
+    }
+
+    private static Tableau createTableau(TableauStorage storage, int rows, int columns) {
+        switch (storage) {
+            case DIRECT:
+                return BufferTableau.allocateDirect(rows, columns);
+            case MAPPED:
+                try {
+                    return BufferTableau.mapTemporary(rows, columns);
+                } catch (IOException e) {
+                    throw new IllegalStateException("Could not map the tableaux file", e);
+                }
+            default:
+                return new ArrayTableau(rows, columns);
+        }
+    }
+
+    public Tableau getTableau() {
+        return a;
+    }
+
+    /**
+     * The tableaux as an array, available only when it is stored in the heap.
+     * After a {@link #reload} the array can have more rows and columns than the tableaux.
+     */
+    public double[][] getTableaux() {
+        if (!(a instanceof ArrayTableau))
+            throw new IllegalStateException("The tableaux is not stored in the heap");
+        return ((ArrayTableau) a).getArray();
+    }
+
+    public int getNumberOfConstraints() {
+        return numberOfConstraints + equals_count;
+    }
+
+    public int getNumberOfOriginalVariables() { return numberOfOriginalVariables; }
+
+    public ProblemKind getProblemKind() { return maximizeOrMinimize; }
+
+    public Constraint[] getConstraintOperators() { return constraintOperators; }
+
+}
@@ -0,0 +1,18 @@
+package br.com.fattymeerkats.simplexaf.linearprogramming;
+
+import java.util.List;
+
+/**
+ * The pricing problem of the column generation, supplied by the user.
+ */
+public interface PricingCallback {
+
+    /**
+     * Search the implicit variable set for columns that improve the master problem, that is,
+     * columns whose reduced cost c - dual'a is negative (MINIMIZATION) or positive (MAXIMIZATION).
+     *
+     * @param dual the dual values of the master constraints (see {@link Simplex#dual()})
+     * @return the improving columns found (an empty list when there are none)
+     */
+    List<Column> price(double[] dual);
+}
@@ -0,0 +1,42 @@
+package br.com.fattymeerkats.simplexaf.linearprogramming;
+
+/**
+ * The recourse (second stage) data of one scenario of a two-stage stochastic problem:
+ *
+ *      optimize q'y  subject to  T x + W y (operator) h,  y >= 0
+ *
+ * where x are the first stage decisions. Scenarios may share the same arrays
+ * (usually W), which are never modified.
+ */
+public class Scenario {
+
+    private double probability;
+    private double[] objectiveFunction; // q
+    private double[][] technology; // T, one column per first stage variable
+    private double[][] recourse; // W, one column per second stage variable
+    private double[] constraintRightSide; // h
+    private Constraint[] constraintOperators;
+
+    public Scenario(double probability, double[] objectiveFunction, double[][] technology,
+                    double[][] recourse, double[] constraintRightSide, Constraint[] constraintOperator) {
+        this.probability = probability;
+        this.objectiveFunction = objectiveFunction;
+        this.technology = technology;
+        this.recourse = recourse;
+        this.constraintRightSide = constraintRightSide;
+        this.constraintOperators = constraintOperator;
+    }
+
+    public double getProbability() { return probability; }
+
+    public double[] getObjectiveFunction() { return objectiveFunction; }
+
+    public double[][] getTechnology() { return technology; }
+
+    public double[][] getRecourse() { return recourse; }
+
+    public double[] getConstraintRightSide() { return constraintRightSide; }
+
+    public Constraint[] getConstraintOperators() { return constraintOperators; }
+
+}
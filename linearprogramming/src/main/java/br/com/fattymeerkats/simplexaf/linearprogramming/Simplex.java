@@ -0,0 +1,956 @@
+package br.com.fattymeerkats.simplexaf.linearprogramming;
+
+/**
+ * Created by fzschornack on 30/07/15.
+ *
+ * This class solves a linear programming problem using the Simplex algorithm.
+ *
+ */
+public class Simplex implements LinearSolver {
+
+    private Tableau tableaux; // tableaux
+    private double[] pivotRow; // copy of the pivot row used by the elimination
+    private int numberOfConstraints;
+    private int numberOfOriginalVariables;
+    private ProblemKind maximizeOrMinimize;
+    private Constraint[] constraintOperators;
+
+    private final double INF = Double.POSITIVE_INFINITY;
+    private final double EPSILON = 1.0E-9;
+    private final double PERTURBATION = 1.0E-6;
+    private final double STABLE_PIVOT = 0.1; // relative to the largest entry of the column
+
+    private int[] basis; // basis[i] = basic variable corresponding to row i
+    private double[] objectiveFunction; // objectiveFunction[j] = coefficient of variable j
+    private double[] constraintRightSide;
+
+    // workspace, reused (and grown when needed) by each solve
+    private boolean[] installed;
+    private boolean[] basic;
+
+    private boolean verbose;
+
+    private boolean costsShifted; // the dual loop runs on shifted costs, restored before the primal loop
+
+    private int crashIterations;
+    private int dualIterations;
+    private int primalIterations;
+
+    // anytime mode
+    private AnytimeListener anytimeListener;
+    private double gap; // stop when the relative gap between value and bound is below it (0 = off)
+    private long timeLimit; // milliseconds, stop at the first feasible basis after it (0 = off)
+    private double[] upperBound; // implicit upper bound of each variable, from the constraints
+    private double bound; // best bound on the optimal value
+    private boolean optimal;
+
+    /**
+     * Returns an empty Simplex object, whose workspace is reused by each call of
+     * {@link #solve(Modeler)}. Together with a Modeler reloaded for each problem (see
+     * {@link Modeler#reload}) and the accessors that write into caller buffers, a steady-state
+     * solve loop allocates nothing. The tableaux is not printed (see setVerbose).
+     */
+    public Simplex() {
+        basis = new int[0];
+        objectiveFunction = new double[0];
+        constraintRightSide = new double[0];
+        pivotRow = new double[0];
+        installed = new boolean[0];
+        basic = new boolean[0];
+        upperBound = new double[0];
+    }
+
+    /**
+     * Returns an Simplex object, solving the linear programming problem.
+     *
+     * @param model the linear programming problem modeled as a MINIMIZATION problem.
+     */
+    public Simplex(Modeler model) {
+        this(model, null);
+    }
+
+    /**
+     * Returns an Simplex object, solving the linear programming problem starting from the basis
+     * formed by the given columns (e.g. the support of an interior point solution). Columns that
+     * would make the basis singular are skipped and the remaining rows keep their slack variables.
+     *
+     * @param model the linear programming problem modeled as a MINIMIZATION problem.
+     * @param initialColumns the columns to pivot into the basis before solving (may be null)
+     */
+    public Simplex(Modeler model, int[] initialColumns) {
+        this();
+        this.verbose = true;
+        solve(model, initialColumns);
+    }
+
+    /**
+     * Print the tableaux at each iteration (good for debugging or linear programming students).
+     */
+    public void setVerbose(boolean verbose) { this.verbose = verbose; }
+
+    /**
+     * Anytime mode: publish the feasible solution to the listener once the dual loop reaches a
+     * feasible basis and after each primal iteration, together with a bound on the optimal value.
+     */
+    public void setAnytimeListener(AnytimeListener anytimeListener) { this.anytimeListener = anytimeListener; }
+
+    /**
+     * Anytime mode: stop as soon as |value - bound| <= gap * max(1, |value|), keeping the current
+     * feasible solution (0 solves to optimality).
+     */
+    public void setGap(double gap) { this.gap = gap; }
+
+    /**
+     * Anytime mode: stop at the first feasible basis found after the given number of milliseconds
+     * (0 solves to optimality). The dual loop always runs until it finds a feasible basis, so an
+     * infeasible plan is never returned.
+     */
+    public void setTimeLimit(long timeLimit) { this.timeLimit = timeLimit; }
+
+    private boolean isAnytime() {
+        return anytimeListener != null || gap > 0 || timeLimit > 0;
+    }
+
+    /**
+     * Solve the linear programming problem, reusing the workspace of the previous solve.
+     *
+     * @param model the linear programming problem modeled as a MINIMIZATION problem.
+     */
+    public void solve(Modeler model) {
+        solve(model, null);
+    }
+
+    /**
+     * Solve the linear programming problem starting from the basis formed by the given columns,
+     * reusing the workspace of the previous solve.
+     *
+     * @param model the linear programming problem modeled as a MINIMIZATION problem.
+     * @param initialColumns the columns to pivot into the basis before solving (may be null)
+     */
+    public void solve(Modeler model, int[] initialColumns) {
+        solve(model, initialColumns, null);
+    }
+
+    /**
+     * Solve the linear programming problem starting from the basis formed by the given columns,
+     * each one pivoted in the given row when that pivot is possible (see {@link CrashBasis}).
+     *
+     * @param model the linear programming problem modeled as a MINIMIZATION problem.
+     * @param initialColumns the columns to pivot into the basis before solving (may be null)
+     * @param initialRows initialRows[k] = the row of column initialColumns[k], or -1 to let the
+     *                    Simplex choose (may be null)
+     */
+    public void solve(Modeler model, int[] initialColumns, int[] initialRows) {
+
+        this.numberOfConstraints = model.getNumberOfConstraints();
+        this.numberOfOriginalVariables = model.getNumberOfOriginalVariables();
+        this.tableaux = model.getTableau();
+        this.maximizeOrMinimize = model.getProblemKind();
+        this.constraintOperators = model.getConstraintOperators();
+
+        ensureCapacity();
+
+        for (int i = 0; i < numberOfConstraints; i++)
+            basis[i] = numberOfOriginalVariables + i; // at the beginning, the slack variables compound the basis
+
+        for (int j = 0; j < numberOfOriginalVariables; j++)
+            objectiveFunction[j] = tableaux.get(numberOfConstraints, j);
+
+        for (int i = 0; i < numberOfConstraints; i++)
+            constraintRightSide[i] = tableaux.get(i, numberOfConstraints + numberOfOriginalVariables);
+
+        if (isAnytime())
+            computeUpperBounds(); // from the original constraints, before any pivot
+
+        costsShifted = false;
+        crashIterations = 0;
+        if (initialColumns != null) {
+            installBasis(initialColumns, initialRows);
+            shiftCosts();
+        }
+
+        solve();
+
+    }
+
+    /**
+     * Grow the workspace arrays to fit the current model.
+     */
+    private void ensureCapacity() {
+        int columns = numberOfConstraints + numberOfOriginalVariables;
+
+        if (basis.length < numberOfConstraints) {
+            basis = new int[numberOfConstraints];
+            constraintRightSide = new double[numberOfConstraints];
+            installed = new boolean[numberOfConstraints];
+        }
+        if (objectiveFunction.length < numberOfOriginalVariables)
+            objectiveFunction = new double[numberOfOriginalVariables];
+        if (pivotRow.length < columns + 1)
+            pivotRow = new double[columns + 1];
+        if (basic.length < columns)
+            basic = new boolean[columns];
+        if (isAnytime() && upperBound.length < columns)
+            upperBound = new double[columns];
+    }
+
+    /**
+     * Implicit upper bounds of the variables: a lessThan row with nonnegative coefficients and
+     * right side bounds each of its variables by b / a, and the slack of any row is bounded by
+     * b - sum of a * x over its negative coefficients when those variables are bounded.
+     */
+    private void computeUpperBounds() {
+        int rightSide = numberOfConstraints + numberOfOriginalVariables;
+
+        for (int j = 0; j < rightSide; j++)
+            upperBound[j] = INF;
+
+        for (int i = 0; i < numberOfConstraints; i++) {
+            if (tableaux.get(i, rightSide) < 0)
+                continue;
+            boolean nonNegative = true;
+            for (int j = 0; j < numberOfOriginalVariables && nonNegative; j++)
+                nonNegative = tableaux.get(i, j) >= 0;
+            if (!nonNegative)
+                continue;
+            for (int j = 0; j < numberOfOriginalVariables; j++)
+                if (tableaux.get(i, j) > 0)
+                    upperBound[j] = Math.min(upperBound[j], tableaux.get(i, rightSide) / tableaux.get(i, j));
+        }
+
+        for (int i = 0; i < numberOfConstraints; i++) {
+            double slack = tableaux.get(i, rightSide);
+            for (int j = 0; j < numberOfOriginalVariables; j++)
+                if (tableaux.get(i, j) < 0)
+                    slack -= tableaux.get(i, j) * upperBound[j]; // INF when the variable is unbounded
+            upperBound[numberOfOriginalVariables + i] = slack;
+        }
+    }
+
+    /**
+     * Lower bound of the MINIMIZATION problem at the current feasible basis: any feasible x has
+     * cost z + sum of d_j * x_j over the reduced costs d_j, which is at least z plus the negative
+     * reduced costs times the upper bounds of their variables.
+     */
+    private double lowerBound() {
+        double lower = - tableaux.get(numberOfConstraints, numberOfConstraints + numberOfOriginalVariables);
+        for (int j = 0; j < numberOfConstraints + numberOfOriginalVariables; j++)
+            if (tableaux.get(numberOfConstraints, j) < 0)
+                lower += tableaux.get(numberOfConstraints, j) * upperBound[j];
+        return lower;
+    }
+
+    /**
+     * Mark the basic variables in the workspace array basic.
+     */
+    private void markBasis() {
+        for (int j = 0; j < numberOfOriginalVariables + numberOfConstraints; j++)
+            basic[j] = false;
+        for (int i = 0; i < numberOfConstraints; i++)
+            basic[basis[i]] = true;
+    }
+
+    /**
+     * Pivot the given columns into the basis, each one replacing a slack variable in its given row
+     * or else in the row with the largest absolute pivot entry (never a slack variable that is
+     * itself requested).
+     *
+     * @param columns the columns entering the basis, in order of preference
+     * @param rows the row of each column, -1 for none (may be null)
+     */
+    private void installBasis(int[] columns, int[] rows) {
+        for (int i = 0; i < numberOfConstraints; i++)
+            installed[i] = false;
+        markBasis();
+
+        // the requested columns already in the basis keep their rows
+        for (int k = 0; k < columns.length; k++)
+            if (columns[k] >= 0 && columns[k] < numberOfOriginalVariables + numberOfConstraints && basic[columns[k]])
+                for (int i = 0; i < numberOfConstraints; i++)
+                    if (basis[i] == columns[k])
+                        installed[i] = true;
+
+        for (int k = 0; k < columns.length; k++) {
+            int q = columns[k];
+            if (q < 0 || q >= numberOfOriginalVariables + numberOfConstraints || basic[q])
+                continue;
+
+            int p = rows == null ? -1 : rows[k];
+            if (p < 0 || p >= numberOfConstraints || installed[p] || Math.abs(tableaux.get(p, q)) <= EPSILON)
+                p = installRow(q);
+            if (p == -1)
+                continue; // column is dependent on the ones already installed
+
+            pivot(p, q);
+
+            basic[basis[p]] = false;
+            basic[q] = true;
+            basis[p] = q;
+            installed[p] = true;
+            crashIterations++;
+        }
+    }
+
+    /**
+     * Choose the row where a requested column replaces a slack variable: the row with the largest
+     * absolute pivot entry, or rather an infeasible row the column moves towards feasibility.
+     *
+     * @param q the column entering the basis
+     * @return the index of the row, -1 if the column depends on the ones already installed
+     */
+    private int installRow(int q) {
+        int p = -1;
+        for (int i = 0; i < numberOfConstraints; i++)
+            if (!installed[i] && Math.abs(tableaux.get(i, q)) > EPSILON
+                    && (p == -1 || Math.abs(tableaux.get(i, q)) > Math.abs(tableaux.get(p, q))))
+                p = i;
+
+        if (p == -1)
+            return -1;
+
+        // rather replace the variable of an infeasible row the column moves towards feasibility,
+        // as long as the pivot stays numerically safe
+        int infeasible = -1;
+        for (int i = 0; i < numberOfConstraints; i++)
+            if (!installed[i] && tableaux.get(i, numberOfConstraints + numberOfOriginalVariables) < -EPSILON
+                    && -tableaux.get(i, q) >= STABLE_PIVOT * Math.abs(tableaux.get(p, q))
+                    && (infeasible == -1 || tableaux.get(i, q) < tableaux.get(infeasible, q)))
+                infeasible = i;
+        if (infeasible != -1)
+            return infeasible;
+        return p;
+    }
+
+    /**
+     * A basis installed from given columns is usually not dual feasible, which the dual loop
+     * requires: shift the cost of each column with negative reduced cost so it becomes slightly
+     * positive (distinct small values, so the dual ratio test has no ties and can't cycle).
+     */
+    private void shiftCosts() {
+        for (int j = 0; j < numberOfConstraints + numberOfOriginalVariables; j++)
+            if (tableaux.get(numberOfConstraints, j) < 0) {
+                tableaux.set(numberOfConstraints, j, PERTURBATION * (1 + (j % 97) / 97.0));
+                costsShifted = true;
+            }
+    }
+
+    /**
+     * Recompute the objective row with the original costs for the current basis:
+     * c_j - sum_i c_basis[i] * tableaux[i][j].
+     */
+    private void restoreCosts() {
+        for (int j = 0; j <= numberOfConstraints + numberOfOriginalVariables; j++) {
+            double value = j < numberOfOriginalVariables ? objectiveFunction[j] : 0;
+            for (int i = 0; i < numberOfConstraints; i++)
+                if (basis[i] < numberOfOriginalVariables)
+                    value -= objectiveFunction[basis[i]] * tableaux.get(i, j);
+            tableaux.set(numberOfConstraints, j, value);
+        }
+        costsShifted = false;
+    }
+
+    /**
+     * Run simplex algorithm starting from initial Best Feasible Solution.
+     */
+    private void solve() {
+
+        dualIterations = 0;
+        primalIterations = 0;
+        optimal = false;
+        boolean anytime = isAnytime();
+        long deadline = System.nanoTime() + timeLimit * 1000000L;
+        bound = maximizeOrMinimize.equals(ProblemKind.MAXIMIZE) ? INF : -INF;
+
+        // DUAL SIMPLEX
+        while (true) {
+            if (verbose)
+                show();
+            int p = dualRule();
+
+            if (p == -1)
+                break; // all entries in vector b are positive, goto primal
+
+            // find pivot column
+            int q = maxRatioRule(p);
+            if (q == -1)
+                throw new ArithmeticException("Linear program is infeasible");
+
+            // pivot (multiplying line p by -1 first would change nothing: the pivot divides it
+            // by its own, negated, entry)
+            pivot(p, q);
+
+            //update basis
+            basis[p] = q;
+            dualIterations++;
+        }
+
+        if (costsShifted)
+            restoreCosts();
+
+        // PRIMAL SIMPLEX
+        while (true) {
+            if (verbose)
+                show();
+            int q = 0;
+
+            // find entering column q
+            q = dantzigNegative();
+
+            if (q == -1) {
+                optimal = true;
+                bound = value();
+                if (anytimeListener != null)
+                    anytimeListener.feasibleSolution(this);
+                break; // optimal
+            }
+
+            if (anytime) {
+                // the bound of each basis is valid, keep the best one
+                if (maximizeOrMinimize.equals(ProblemKind.MAXIMIZE))
+                    bound = Math.min(bound, - lowerBound());
+                else
+                    bound = Math.max(bound, lowerBound());
+
+                if (anytimeListener != null)
+                    anytimeListener.feasibleSolution(this);
+
+                if ((gap > 0 && Math.abs(value() - bound) <= gap * Math.max(1, Math.abs(value())))
+                        || (timeLimit > 0 && System.nanoTime() - deadline >= 0))
+                    break; // good enough, the basis is feasible
+            }
+
+            // find leaving row p
+            int p = minRatioRule(q);
+            if (p == -1)
+                throw new ArithmeticException("Linear program is unbounded");
+
+            // pivot
+            pivot(p, q);
+
+            // update basis
+            basis[p] = q;
+            primalIterations++;
+        }
+    }
+
+    /**
+     * Number of pivots done to install the initial columns, before the dual simplex.
+     */
+    public int getCrashIterations() { return crashIterations; }
+
+    /**
+     * Number of pivots done by the dual simplex to reach a feasible basis (Phase I), not counting
+     * the pivots of the initial columns (see getCrashIterations).
+     */
+    public int getDualIterations() { return dualIterations; }
+
+    /**
+     * Number of pivots done by the primal simplex to reach the optimal basis.
+     */
+    public int getPrimalIterations() { return primalIterations; }
+
+    /**
+     * If the solution is optimal, rather than stopped early by the gap or the time limit of the
+     * anytime mode (the sensitivity analysis is only meaningful for optimal solutions).
+     */
+    public boolean isOptimal() { return optimal; }
+
+    /**
+     * Bound on the optimal value at the current solution: an upper bound for MAXIMIZATION and a
+     * lower bound for MINIMIZATION problems, equal to the value when optimal. It is infinite
+     * while the improving variables have no implicit upper bound.
+     */
+    public double getBound() { return bound; }
+
+    /**
+     * Dantzig negative rule.
+     * Find the pivot column of Primal Simplex.
+     *
+     * @return the index q of a non-basic column with most negative cost
+     */
+    private int dantzigNegative() {
+        int q = 0;
+        // numberOfConstraints == number of slack variables
+        for (int j = 1; j < numberOfConstraints + numberOfOriginalVariables; j++)
+            if (tableaux.get(numberOfConstraints, j) < tableaux.get(numberOfConstraints, q))
+                q = j;
+
+        if (tableaux.get(numberOfConstraints, q) >= -EPSILON)
+            return -1; // optimal
+        else
+            return q;
+    }
+
+    /**
+     * Find the pivot row p using min ratio rule (-1 if no such row).
+     *
+     * @param q column with most negative cost.
+     * @return the row p whose variable is leaving the basis.
+     */
+    private int minRatioRule(int q) {
+        int rightSide = numberOfConstraints + numberOfOriginalVariables;
+        int p = -1;
+        double min = INF;
+        for (int i = 0; i < numberOfConstraints; i++) {
+            double entry = tableaux.get(i, q);
+            if (entry <= EPSILON)
+                continue;
+            double ratio = tableaux.get(i, rightSide) / entry;
+            if (ratio < min) {
+                min = ratio;
+                p = i;
+            }
+        }
+        return p;
+    }
+
+    /**
+     * Find the pivot row of Dual Simplex.
+     *
+     * @return the index of a row with most negative b.
+     */
+    private int dualRule() {
+        int p = 0;
+        for (int i = 1; i < numberOfConstraints; i++)
+            if (tableaux.get(i, numberOfConstraints
+                    + numberOfOriginalVariables) < tableaux.get(p, numberOfConstraints
+                    + numberOfOriginalVariables))
+                p = i;
+
+        if (tableaux.get(p, numberOfConstraints
+                + numberOfOriginalVariables) >= -EPSILON)
+            return -1; // dual not needed, goto primal
+        else
+            return p;
+    }
+
+    /**
+     * Find the pivot column of Dual Simplex.
+     *
+     * @param p the index of the row
+     * @return the index of column q using max ratio rule (-1 if no such column)
+     */
+    private int maxRatioRule(int p) {
+        int q = -1;
+        double max = -INF;
+        for (int j = 0; j < numberOfConstraints + numberOfOriginalVariables; j++) {
+            double entry = tableaux.get(p, j);
+            if (entry >= -EPSILON)
+                continue;
+            double ratio = tableaux.get(numberOfConstraints, j) / entry;
+            if (ratio > max) {
+                max = ratio;
+                q = j;
+            }
+        }
+        return q;
+    }
+
+    /**
+     * Perform the pivot on entry (p, q) using Gauss-Jordan elimination
+     *
+     * @param p the index of the row
+     * @param q the index of the column
+     */
+    private void pivot(int p, int q) {
+
+        tableaux.readRow(p, pivotRow);
+        double pivot = pivotRow[q];
+
+        // everything but row p, then zero out column q
+        for (int i = 0; i <= numberOfConstraints; i++) {
+            if (i == p)
+                continue;
+            double factor = tableaux.get(i, q) / pivot;
+            if (factor != 0) {
+                tableaux.subtractRow(i, factor, pivotRow);
+                tableaux.set(i, q, 0.0);
+            }
+        }
+
+        // scale row p (branch-free, then fix the pivot entry)
+        tableaux.scaleRow(p, pivot, pivotRow);
+        tableaux.set(p, q, 1.0);
+    }
+
+    /**
+     * Optimal value of the problem.
+     *
+     * @return the optimal objective value
+     */
+    public double value() {
+        double solution = tableaux.get(numberOfConstraints, numberOfConstraints
+                + numberOfOriginalVariables);
+
+        if (maximizeOrMinimize.equals(ProblemKind.MAXIMIZE))
+            return solution;
+
+        return - solution;
+    }
+
+    /**
+     * The solution values of each variable.
+     *
+     * @return the primal solution vector.
+     */
+    public double[] primal() {
+        double[] x = new double[numberOfOriginalVariables + numberOfConstraints];
+        primal(x);
+        return x;
+    }
+
+    /**
+     * Write the solution values of each variable into the given buffer.
+     *
+     * @param x the buffer, with room for numberOfOriginalVariables + numberOfConstraints values
+     */
+    public void primal(double[] x) {
+        for (int j = 0; j < numberOfOriginalVariables + numberOfConstraints; j++)
+            x[j] = 0;
+        for (int i = 0; i < numberOfConstraints; i++)
+            x[basis[i]] = tableaux.get(i, numberOfConstraints
+                    + numberOfOriginalVariables);
+    }
+
+    /**
+     * The dual values (shadow prices) of each original constraint, such that the reduced cost of
+     * a column with objective coefficient c and constraint coefficients a is c - dual'a.
+     * A column improves a MINIMIZATION problem when its reduced cost is negative and a
+     * MAXIMIZATION problem when it is positive.
+     *
+     * @return the dual solution vector.
+     */
+    public double[] dual() {
+        double[] y = new double[constraintOperators.length];
+        dual(y);
+        return y;
+    }
+
+    /**
+     * Write the dual values of each original constraint into the given buffer.
+     *
+     * @param y the buffer, with room for one value per original constraint
+     */
+    public void dual(double[] y) {
+        int k = 0;
+        for (int i = 0; i < constraintOperators.length; i++) {
+            switch (constraintOperators[i]) {
+                case greaterThan:
+                    y[i] = tableaux.get(numberOfConstraints, numberOfOriginalVariables + k);
+                    break;
+                case lessThan:
+                    y[i] = - tableaux.get(numberOfConstraints, numberOfOriginalVariables + k);
+                    break;
+                case equal:
+                    y[i] = - tableaux.get(numberOfConstraints, numberOfOriginalVariables + k)
+                            + tableaux.get(numberOfConstraints, numberOfOriginalVariables + k + 1);
+                    k++;
+                    break;
+            }
+            k++;
+        }
+
+        if (maximizeOrMinimize.equals(ProblemKind.MAXIMIZE))
+            for (int i = 0; i < constraintOperators.length; i++)
+                y[i] = - y[i];
+    }
+
+    /**
+     * The variables in the final basis.
+     *
+     * @return basis[i] = basic variable corresponding to row i
+     */
+    public int[] getBasis() {
+        int[] b = new int[numberOfConstraints];
+        getBasis(b);
+        return b;
+    }
+
+    /**
+     * Write the variables in the final basis into the given buffer.
+     *
+     * @param b the buffer, with room for numberOfConstraints values
+     */
+    public void getBasis(int[] b) {
+        System.arraycopy(basis, 0, b, 0, numberOfConstraints);
+    }
+
+    /**
+     * Calculate how much of each constraint is being used (original r.h. value - slack).
+     * Note: slack = waste/leftover
+     *
+     * @param solutionVector the solution values of each variable
+     * @return a vector describing how much of each constraint is being used
+     */
+    public double[] constraintsFinalValues(double[] solutionVector) {
+        double[] x = new double[numberOfConstraints];
+        constraintsFinalValues(solutionVector, x);
+        return x;
+    }
+
+    /**
+     * Write how much of each constraint is being used into the given buffer.
+     *
+     * @param solutionVector the solution values of each variable
+     * @param x the buffer, with room for numberOfConstraints values
+     */
+    public void constraintsFinalValues(double[] solutionVector, double[] x) {
+        for (int i = 0; i < numberOfConstraints; i++)
+            if (constraintOperators[i].equals(Constraint.greaterThan))
+                x[i] = - constraintRightSide[i] - solutionVector[numberOfOriginalVariables + i];
+            else
+                x[i] = constraintRightSide[i] - solutionVector[numberOfOriginalVariables + i];
+    }
+
+    /**
+     * Perform the Sensitivity Analysis on vector c, computing the coefficients (vector c) ranges
+     * (floor, ceil) for which the basis remains optimal.
+     *
+     * @return the coefficients ranges (floor, ceil) for which the basis remains optimal
+     */
+    public double[][] sensitivityAnalysisVectorC() {
+        double[][] x = new double[numberOfOriginalVariables][2];
+        sensitivityAnalysisVectorC(x);
+        return x;
+    }
+
+    /**
+     * Write the coefficients ranges (floor, ceil) for which the basis remains optimal
+     * into the given buffer.
+     *
+     * @param x the buffer, with numberOfOriginalVariables rows of 2 values
+     */
+    public void sensitivityAnalysisVectorC(double[][] x) {
+        markBasis();
+
+        // basic variables coefficients
+        for (int i = 0; i < numberOfConstraints; i++) {
+            if (basis[i] < numberOfOriginalVariables) {
+
+                x[basis[i]][0] = objectiveFunction[basis[i]] + floorSensitivityAnalysisVectorC(i);
+                x[basis[i]][1] = objectiveFunction[basis[i]] + ceilSensitivityAnalysisVectorC(i);
+            }
+        }
+
+        // non-basic variables coefficients
+        for (int i = 0; i < numberOfOriginalVariables; i++)
+            if (!basic[i]) {
+                x[i][0] = objectiveFunction[i] - tableaux.get(numberOfConstraints, i);
+                x[i][1] = INF;
+            }
+
+        // maximization problem: switch (floor, ceil) -> (ceil,floor) and change signals
+        double aux;
+        if (maximizeOrMinimize.equals(ProblemKind.MAXIMIZE))
+            for (int i = 0; i < numberOfOriginalVariables; i++) {
+                aux = x[i][0];
+                x[i][0] = - x[i][1];
+                x[i][1] = - aux;
+            }
+    }
+
+    /**
+     * Compute the coefficient floor value such that the problem solution doesn't change,
+     * using the rule max( (cl-zl)/ykl | ykl < 0 )
+     *
+     * @param i the basic variable coefficient index
+     * @return the variation allowed
+     */
+    public double floorSensitivityAnalysisVectorC(int i) {
+        markBasis();
+
+        int x = -1;
+        for (int j = 0; j < numberOfOriginalVariables + numberOfConstraints; j++) {
+            if (tableaux.get(i, j) < 0 && !basic[j])
+                if (x == -1)
+                    x = j;
+                else if (tableaux.get(numberOfConstraints, j) / tableaux.get(i, j)
+                        > tableaux.get(numberOfConstraints, x) / tableaux.get(i, x))
+                    x = j;
+        }
+
+        if (x == -1)
+            return -INF;
+
+        return tableaux.get(numberOfConstraints, x) / tableaux.get(i, x);
+    }
+
+    /**
+     * Compute the coefficient ceil value such that the problem solution doesn't change,
+     * using the rule min( (cl-zl)/ykl | ykl > 0 )
+     *
+     * @param i the basic variable coefficient index
+     * @return the variation allowed
+     */
+    public double ceilSensitivityAnalysisVectorC(int i) {
+        markBasis();
+
+        int x = -1;
+        for (int j = 0; j < numberOfOriginalVariables + numberOfConstraints; j++) {
+            if (tableaux.get(i, j) > 0 && !basic[j])
+                if (x == -1)
+                    x = j;
+                else if (tableaux.get(numberOfConstraints, j) / tableaux.get(i, j)
+                        < tableaux.get(numberOfConstraints, x) / tableaux.get(i, x))
+                    x = j;
+        }
+
+        if (x == -1)
+            return INF;
+
+        return tableaux.get(numberOfConstraints, x) / tableaux.get(i, x);
+    }
+
+    /**
+     * Perform the Sensitivity Analysis on vector b, computing the constraints (vector b) ranges
+     * (floor, ceil) for which the basis remains optimal.
+     *
+     * @return the constraints ranges (floor, ceil) for which the basis remains optimal
+     */
+    public double[][] sensitivityAnalysisVectorB() {
+        double[][] x = new double[numberOfConstraints][2];
+        sensitivityAnalysisVectorB(x);
+        return x;
+    }
+
+    /**
+     * Write the constraints ranges (floor, ceil) for which the basis remains optimal
+     * into the given buffer.
+     *
+     * @param x the buffer, with numberOfConstraints rows of 2 values
+     */
+    public void sensitivityAnalysisVectorB(double[][] x) {
+        for (int i = 0; i < numberOfConstraints; i++) {
+            x[i][0] = constraintRightSide[i] + floorSensitivityAnalysisVectorB(numberOfOriginalVariables + i);
+            x[i][1] = constraintRightSide[i] + ceilSensitivityAnalysisVectorB(numberOfOriginalVariables + i);
+        }
+
+        // greater than constraint: switch (floor, ceil) -> (ceil,floor) and change signals
+        double aux;
+        for (int i = 0; i < numberOfConstraints; i++)
+            if (constraintOperators[i].equals(Constraint.greaterThan)) {
+                aux = x[i][0];
+                x[i][0] = - x[i][1];
+                x[i][1] = - aux;
+            }
+    }
+
+    /**
+     * Compute the constraint floor value such that the problem solution doesn't change,
+     * using the rule max( bl/-B^-1li | B^-1li > 0)
+     *
+     * @param j the constraint index
+     * @return the variation allowed
+     */
+    public double floorSensitivityAnalysisVectorB(int j) {
+        int x = -1;
+        for (int i = 0; i < numberOfConstraints; i++) {
+            if (tableaux.get(i, j) > 0)
+                if (x == -1)
+                    x = i;
+                else if (tableaux.get(i, numberOfOriginalVariables + numberOfConstraints) / -tableaux.get(i, j) >
+                        tableaux.get(x, numberOfOriginalVariables + numberOfConstraints) / -tableaux.get(x, j))
+                    x = i;
+        }
+
+        if (x == -1)
+            return -INF;
+        return tableaux.get(x, numberOfOriginalVariables + numberOfConstraints) / -tableaux.get(x, j);
+    }
+
+    /**
+     * Compute the constraint ceil value such that the problem solution doesn't change,
+     * using the rule min( bl/-B^-1li | B^-1li < 0)
+     *
+     * @param j the constraint index
+     * @return the variation allowed
+     */
+    public double ceilSensitivityAnalysisVectorB(int j) {
+        int x = -1;
+        for (int i = 0; i < numberOfConstraints; i++) {
+            if (tableaux.get(i, j) < 0)
+                if (x == -1)
+                    x = i;
+                else if (tableaux.get(i, numberOfOriginalVariables + numberOfConstraints) / -tableaux.get(i, j) <
+                        tableaux.get(x, numberOfOriginalVariables + numberOfConstraints) / -tableaux.get(x, j))
+                    x = i;
+        }
+
+        if (x == -1)
+            return INF;
+
+        return tableaux.get(x, numberOfOriginalVariables + numberOfConstraints) / -tableaux.get(x, j);
+    }
+
+    /**
+     * Print the tableaux (good for debugging or linear programming students)
+     */
+    public void show() {
+        System.out.println("M = " + numberOfConstraints);
+        System.out.println("N = " + numberOfOriginalVariables);
+        for (int i = 0; i <= numberOfConstraints; i++) {
+            for (int j = 0; j <= numberOfConstraints
+                    + numberOfOriginalVariables; j++) {
+                System.out.printf("%7.2f ", tableaux.get(i, j));
+            }
+            System.out.println();
+        }
+        System.out.println("value = " + value());
+        for (int i = 0; i < numberOfConstraints; i++)
+            if (basis[i] < numberOfOriginalVariables)
+                System.out.println("x_"
+                        + basis[i]
+                        + " = "
+                        + tableaux.get(i, numberOfConstraints
+                        + numberOfOriginalVariables));
+        System.out.println();
+    }
+
+    // test client
+    public static void main(String[] args) {
+
+        final boolean MAXIMIZE = true;
+        final boolean MINIMIZE = false;
+
+        double[] objectiveFunc = { 12, 40 };
+        double[][] constraintLeftSide = {   { 1, 1 },
+                                            { 1, 3 },
+                                            { 1, 0 } };
+
+        Constraint[] constraintOperator = { Constraint.lessThan,
+                Constraint.lessThan, Constraint.greaterThan };
+        double[] constraintRightSide = { 16, 36, 10 };
+
+        // create the model of the problem
+        Modeler model = new Modeler(constraintLeftSide, constraintRightSide,
+                constraintOperator, objectiveFunc, ProblemKind.MAXIMIZE);
+
+        // solve using Simplex
+        Simplex simplex = new Simplex(model);
+
+        double[] x = simplex.primal();
+        double[][] sac = simplex.sensitivityAnalysisVectorC();
+        double[][] sab = simplex.sensitivityAnalysisVectorB();
+        double[] b = simplex.constraintsFinalValues(x);
+
+        for (int i = 0; i < x.length; i++)
+            System.out.println("x[" + i + "] = " + x[i]);
+
+        for (int i = 0; i < b.length; i++)
+            System.out.println("b[" + i + "] = " + b[i]);
+
+        System.out.println("Solution: " + simplex.value());
+
+        for (int i = 0; i < simplex.numberOfOriginalVariables; i++) {
+            System.out.printf("c_%d MIN = %7.2f MAX = %7.2f", i, sac[i][0], sac[i][1]);
+            System.out.println();
+        }
+
+        for (int i = 0; i < simplex.numberOfConstraints; i++) {
+            System.out.printf("b_%d MIN = %7.2f MAX = %7.2f", i, sab[i][0], sab[i][1]);
+            System.out.println();
+        }
+    }
+
+
+}
@@ -0,0 +1,439 @@
+package br.com.fattymeerkats.simplexaf.linearprogramming;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A cache of optimal solutions in front of the Simplex, for front-ends that keep submitting
+ * the same models. Each model is identified by a 128-bit fingerprint of its coefficients,
+ * operators and kind which does not depend on the order of the constraints, so a model with
+ * its constraints reordered is a hit too (the solution is returned in the requested order).
+ *
+ * Each entry keeps its whole model, so a fingerprint collision is detected and treated as a miss.
+ * The least recently used entries are evicted when there are more than maxEntries of them or
+ * when they hold more than maxValues numbers in total (the model included). On a miss, the
+ * Simplex is warm started from the optimal basis of the closest cached model with the same
+ * dimensions and kind.
+ *
+ * Only the lookups and updates of the entries hold the lock: the fingerprints and the distances
+ * to the cached models are computed and the misses are solved outside of it, each thread with
+ * its own Simplex.
+ */
+public class SolutionCache {
+
+    private static final long SEED_1 = 0x9E3779B97F4A7C15L;
+    private static final long SEED_2 = 0xC2B2AE3D27D4EB4FL;
+
+    private int maxEntries;
+    private long maxValues;
+
+    private long values; // numbers held by all the entries
+    private int hits;
+    private int misses;
+
+    private LinkedHashMap<Fingerprint, Entry> entries =
+            new LinkedHashMap<Fingerprint, Entry>(16, 0.75f, true); // access order = LRU
+    private Map<Shape, Set<Entry>> shapes = new HashMap<Shape, Set<Entry>>(); // warm start candidates
+
+    private ThreadLocal<Simplex> simplex = Workers.simplexPerThread();
+    private ThreadLocal<Modeler> model = Workers.modelerPerThread();
+
+    public SolutionCache(int maxEntries, long maxValues) {
+        this.maxEntries = maxEntries;
+        this.maxValues = maxValues;
+    }
+
+    /**
+     * Return the optimal solution of the problem, solving it only if it is not in the cache.
+     * The arguments are the same as those of the {@link Modeler}.
+     */
+    public CachedSolution solve(double[][] constraintLeftSide, double[] constraintRightSide,
+                                Constraint[] constraintOperator, double[] objectiveFunction,
+                                ProblemKind maximizeOrMinimize) {
+        int numberOfConstraints = constraintRightSide.length;
+        int numberOfOriginalVariables = objectiveFunction.length;
+
+        // canonical order of the constraints: sorted by their own fingerprint
+        long[] rowHash1 = new long[numberOfConstraints];
+        long[] rowHash2 = new long[numberOfConstraints];
+        for (int i = 0; i < numberOfConstraints; i++) {
+            long h1 = mix(SEED_1, constraintOperator[i].ordinal());
+            long h2 = mix(SEED_2, constraintOperator[i].ordinal());
+            for (int j = 0; j < numberOfOriginalVariables; j++) {
+                h1 = mix(h1, bits(constraintLeftSide[i][j]));
+                h2 = mix(h2, bits(constraintLeftSide[i][j]) + 1);
+            }
+            rowHash1[i] = mix(h1, bits(constraintRightSide[i]));
+            rowHash2[i] = mix(h2, bits(constraintRightSide[i]) + 1);
+        }
+        int[] order = sortedOrder(rowHash1, rowHash2);
+
+        long h1 = mix(mix(mix(SEED_1, maximizeOrMinimize.ordinal()), numberOfOriginalVariables), numberOfConstraints);
+        long h2 = mix(mix(mix(SEED_2, maximizeOrMinimize.ordinal()), numberOfOriginalVariables), numberOfConstraints);
+        for (int j = 0; j < numberOfOriginalVariables; j++) {
+            h1 = mix(h1, bits(objectiveFunction[j]));
+            h2 = mix(h2, bits(objectiveFunction[j]) + 1);
+        }
+        for (int k = 0; k < numberOfConstraints; k++) {
+            h1 = mix(h1, rowHash1[order[k]]);
+            h2 = mix(h2, rowHash2[order[k]]);
+        }
+        Fingerprint fingerprint = new Fingerprint(h1, h2);
+
+        // first tableaux row of each constraint ("equal" constraints take two rows)
+        int[] firstRow = new int[numberOfConstraints];
+        int rows = 0;
+        for (int i = 0; i < numberOfConstraints; i++) {
+            firstRow[i] = rows;
+            rows += constraintOperator[i] == Constraint.equal ? 2 : 1;
+        }
+
+        double[] canonicalRightSide = new double[numberOfConstraints];
+        for (int k = 0; k < numberOfConstraints; k++)
+            canonicalRightSide[k] = constraintRightSide[order[k]];
+
+        Shape shape = new Shape(maximizeOrMinimize, numberOfOriginalVariables, numberOfConstraints);
+        Entry entry;
+        List<Entry> candidates = null;
+        synchronized (this) {
+            entry = entries.get(fingerprint);
+            // the fingerprints of different models may collide: check the stored model too
+            if (entry != null && !entry.matches(constraintLeftSide, constraintOperator, order,
+                    objectiveFunction, canonicalRightSide, maximizeOrMinimize))
+                entry = null;
+
+            if (entry != null)
+                hits++;
+            else {
+                misses++;
+                Set<Entry> sameShape = shapes.get(shape);
+                if (sameShape != null)
+                    candidates = new ArrayList<Entry>(sameShape);
+            }
+        }
+
+        boolean hit = entry != null;
+        if (!hit) {
+            int[] warmStart = null;
+            Entry closest = candidates == null ? null
+                    : closest(candidates, constraintLeftSide, order, objectiveFunction, canonicalRightSide);
+            if (closest != null)
+                warmStart = closest.basis;
+            entry = solve(constraintLeftSide, constraintRightSide, constraintOperator, objectiveFunction,
+                    maximizeOrMinimize, canonicalRightSide, warmStart, order, firstRow, rows);
+            synchronized (this) {
+                Entry replaced = entries.put(fingerprint, entry);
+                if (replaced != null)
+                    remove(replaced);
+                Set<Entry> sameShape = shapes.get(shape);
+                if (sameShape == null) {
+                    sameShape = new HashSet<Entry>();
+                    shapes.put(shape, sameShape);
+                }
+                sameShape.add(entry);
+                values += entry.size();
+                evict();
+            }
+        }
+
+        // back from the canonical order to the requested one
+        double[] x = new double[numberOfOriginalVariables + rows];
+        double[] y = new double[numberOfConstraints];
+        double[] tableauxRightSide = new double[rows];
+        Constraint[] tableauxOperators = new Constraint[rows];
+        System.arraycopy(entry.x, 0, x, 0, numberOfOriginalVariables);
+        int r = 0;
+        for (int k = 0; k < numberOfConstraints; k++) {
+            int i = order[k];
+            y[i] = entry.y[k];
+            x[numberOfOriginalVariables + firstRow[i]] = entry.slack[r++];
+            if (constraintOperator[i] == Constraint.equal)
+                x[numberOfOriginalVariables + firstRow[i] + 1] = entry.slack[r++];
+        }
+        for (int i = 0; i < numberOfConstraints; i++) {
+            tableauxOperators[firstRow[i]] = constraintOperator[i];
+            switch (constraintOperator[i]) {
+                case greaterThan:
+                    tableauxRightSide[firstRow[i]] = -constraintRightSide[i];
+                    break;
+                case lessThan:
+                    tableauxRightSide[firstRow[i]] = constraintRightSide[i];
+                    break;
+                case equal:
+                    tableauxRightSide[firstRow[i]] = constraintRightSide[i];
+                    tableauxRightSide[firstRow[i] + 1] = -constraintRightSide[i];
+                    tableauxOperators[firstRow[i] + 1] = constraintOperator[i];
+                    break;
+            }
+        }
+
+        return new CachedSolution(entry.value, x, y, entry.basis, tableauxOperators, tableauxRightSide,
+                numberOfOriginalVariables, hit);
+    }
+
+    /**
+     * Solve a model missing from the cache and keep its solution in the canonical order.
+     */
+    private Entry solve(double[][] constraintLeftSide, double[] constraintRightSide,
+                        Constraint[] constraintOperator, double[] objectiveFunction,
+                        ProblemKind maximizeOrMinimize, double[] canonicalRightSide, int[] warmStart,
+                        int[] order, int[] firstRow, int rows) {
+        int numberOfConstraints = constraintRightSide.length;
+        int numberOfOriginalVariables = objectiveFunction.length;
+
+        Modeler model = this.model.get();
+        model.reload(constraintLeftSide, constraintRightSide, constraintOperator, objectiveFunction,
+                maximizeOrMinimize);
+        Simplex simplex = this.simplex.get();
+        simplex.solve(model, warmStart);
+
+        double[] solution = simplex.primal();
+        double[] dual = simplex.dual();
+
+        Entry entry = new Entry();
+        entry.value = simplex.value();
+        entry.kind = maximizeOrMinimize;
+        entry.objectiveFunction = objectiveFunction.clone();
+        entry.constraintRightSide = canonicalRightSide;
+        entry.constraintLeftSide = new double[numberOfConstraints][];
+        entry.constraintOperators = new Constraint[numberOfConstraints];
+        for (int k = 0; k < numberOfConstraints; k++) {
+            entry.constraintLeftSide[k] = constraintLeftSide[order[k]].clone();
+            entry.constraintOperators[k] = constraintOperator[order[k]];
+        }
+
+        entry.x = new double[numberOfOriginalVariables];
+        System.arraycopy(solution, 0, entry.x, 0, numberOfOriginalVariables);
+
+        entry.slack = new double[rows];
+        entry.y = new double[numberOfConstraints];
+        int r = 0;
+        for (int k = 0; k < numberOfConstraints; k++) {
+            int i = order[k];
+            entry.y[k] = dual[i];
+            entry.slack[r++] = solution[numberOfOriginalVariables + firstRow[i]];
+            if (constraintOperator[i] == Constraint.equal)
+                entry.slack[r++] = solution[numberOfOriginalVariables + firstRow[i] + 1];
+        }
+
+        // only the original variables of the basis: they don't depend on the constraints order
+        int[] basis = simplex.getBasis();
+        int structural = 0;
+        for (int i = 0; i < basis.length; i++)
+            if (basis[i] < numberOfOriginalVariables)
+                structural++;
+        entry.basis = new int[structural];
+        structural = 0;
+        for (int i = 0; i < basis.length; i++)
+            if (basis[i] < numberOfOriginalVariables)
+                entry.basis[structural++] = basis[i];
+
+        return entry;
+    }
+
+    /**
+     * Find the candidate whose model is the closest (euclidean distance between the objective
+     * functions, the constraints in the canonical order and the right sides) to the given one.
+     * The candidates have the same dimensions and kind; they are read without the lock, which
+     * is safe because an entry is never modified once it is cached.
+     */
+    private static Entry closest(List<Entry> candidates, double[][] constraintLeftSide, int[] order,
+                                 double[] objectiveFunction, double[] canonicalRightSide) {
+        Entry closest = null;
+        double best = Double.POSITIVE_INFINITY;
+        for (Entry entry : candidates) {
+            double distance = 0;
+            for (int j = 0; j < objectiveFunction.length; j++)
+                distance += (entry.objectiveFunction[j] - objectiveFunction[j])
+                        * (entry.objectiveFunction[j] - objectiveFunction[j]);
+            for (int k = 0; k < canonicalRightSide.length && distance < best; k++) {
+                double[] row = constraintLeftSide[order[k]];
+                for (int j = 0; j < row.length; j++)
+                    distance += (entry.constraintLeftSide[k][j] - row[j])
+                            * (entry.constraintLeftSide[k][j] - row[j]);
+                distance += (entry.constraintRightSide[k] - canonicalRightSide[k])
+                        * (entry.constraintRightSide[k] - canonicalRightSide[k]);
+            }
+
+            if (distance < best) {
+                best = distance;
+                closest = entry;
+            }
+        }
+        return closest;
+    }
+
+    /**
+     * Remove the least recently used entries until the cache fits its bounds.
+     */
+    private void evict() {
+        Iterator<Map.Entry<Fingerprint, Entry>> iterator = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || values > maxValues) && iterator.hasNext()) {
+            remove(iterator.next().getValue());
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Forget an entry that left the LRU map.
+     */
+    private void remove(Entry entry) {
+        values -= entry.size();
+        Shape shape = new Shape(entry.kind, entry.objectiveFunction.length, entry.constraintRightSide.length);
+        Set<Entry> sameShape = shapes.get(shape);
+        sameShape.remove(entry);
+        if (sameShape.isEmpty())
+            shapes.remove(shape);
+    }
+
+    /**
+     * Indexes of the constraints sorted by their (hash1, hash2) fingerprint.
+     */
+    private static int[] sortedOrder(final long[] hash1, final long[] hash2) {
+        Integer[] sorted = new Integer[hash1.length];
+        for (int i = 0; i < sorted.length; i++)
+            sorted[i] = i;
+
+        Arrays.sort(sorted, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer a, Integer b) {
+                if (hash1[a] != hash1[b])
+                    return hash1[a] < hash1[b] ? -1 : 1;
+                if (hash2[a] != hash2[b])
+                    return hash2[a] < hash2[b] ? -1 : 1;
+                return 0;
+            }
+        });
+
+        int[] order = new int[sorted.length];
+        for (int i = 0; i < order.length; i++)
+            order[i] = sorted[i];
+        return order;
+    }
+
+    private static long bits(double value) {
+        return Double.doubleToLongBits(value + 0.0); // -0.0 + 0.0 = 0.0
+    }
+
+    private static long mix(long hash, long value) {
+        hash ^= value * 0xBF58476D1CE4E5B9L;
+        hash = Long.rotateLeft(hash, 31) * 0x94D049BB133111EBL;
+        return hash ^ (hash >>> 29);
+    }
+
+    public synchronized int getHits() { return hits; }
+
+    public synchronized int getMisses() { return misses; }
+
+    public synchronized int size() { return entries.size(); }
+
+    public synchronized void clear() {
+        entries.clear();
+        shapes.clear();
+        values = 0;
+    }
+
+    private static class Fingerprint {
+        private final long hash1;
+        private final long hash2;
+
+        Fingerprint(long hash1, long hash2) {
+            this.hash1 = hash1;
+            this.hash2 = hash2;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Fingerprint))
+                return false;
+            Fingerprint other = (Fingerprint) o;
+            return hash1 == other.hash1 && hash2 == other.hash2;
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) (hash1 ^ (hash1 >>> 32));
+        }
+    }
+
+    /**
+     * Kind and dimensions of a model: only models of the same shape can share a warm start.
+     */
+    private static class Shape {
+        private final ProblemKind kind;
+        private final int numberOfOriginalVariables;
+        private final int numberOfConstraints;
+
+        Shape(ProblemKind kind, int numberOfOriginalVariables, int numberOfConstraints) {
+            this.kind = kind;
+            this.numberOfOriginalVariables = numberOfOriginalVariables;
+            this.numberOfConstraints = numberOfConstraints;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Shape))
+                return false;
+            Shape other = (Shape) o;
+            return kind == other.kind && numberOfOriginalVariables == other.numberOfOriginalVariables
+                    && numberOfConstraints == other.numberOfConstraints;
+        }
+
+        @Override
+        public int hashCode() {
+            return (kind.ordinal() * 31 + numberOfOriginalVariables) * 31 + numberOfConstraints;
+        }
+    }
+
+    private static class Entry {
+        double value;
+        ProblemKind kind;
+        double[] objectiveFunction;
+        double[] constraintRightSide; // canonical order
+        double[][] constraintLeftSide; // canonical order
+        Constraint[] constraintOperators; // canonical order
+        double[] x; // original variables
+        double[] slack; // canonical order
+        double[] y; // canonical order
+        int[] basis; // basic original variables
+
+        long size() {
+            return objectiveFunction.length + constraintRightSide.length
+                    + (long) constraintLeftSide.length * objectiveFunction.length + constraintOperators.length
+                    + x.length + slack.length + y.length + basis.length;
+        }
+
+        /**
+         * Check that the entry was solved for the given model, whose constraint k in the
+         * canonical order is constraint order[k].
+         */
+        boolean matches(double[][] constraintLeftSide, Constraint[] constraintOperator, int[] order,
+                        double[] objectiveFunction, double[] canonicalRightSide, ProblemKind kind) {
+            if (this.kind != kind || this.objectiveFunction.length != objectiveFunction.length
+                    || constraintRightSide.length != canonicalRightSide.length)
+                return false;
+            for (int j = 0; j < objectiveFunction.length; j++)
+                if (this.objectiveFunction[j] != objectiveFunction[j])
+                    return false;
+            for (int k = 0; k < canonicalRightSide.length; k++) {
+                if (constraintRightSide[k] != canonicalRightSide[k]
+                        || constraintOperators[k] != constraintOperator[order[k]])
+                    return false;
+                double[] row = constraintLeftSide[order[k]];
+                for (int j = 0; j < objectiveFunction.length; j++)
+                    if (this.constraintLeftSide[k][j] != row[j])
+                        return false;
+            }
+            return true;
+        }
+    }
+
+}
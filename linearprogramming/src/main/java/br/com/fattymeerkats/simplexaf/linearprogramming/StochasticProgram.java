@@ -0,0 +1,291 @@
+package br.com.fattymeerkats.simplexaf.linearprogramming;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * This class solves two-stage stochastic linear programming problems
+ *
+ *      optimize c'x + sum_s p_s q_s'y_s
+ *      subject to  A x (operator) b,  T_s x + W_s y_s (operator) h_s,  x, y_s >= 0
+ *
+ * using the L-shaped (Benders) decomposition. The master problem holds the first stage
+ * and one optimality cut per iteration; the scenario subproblems are solved in parallel,
+ * each warm started from its previous optimal basis. Only the scenario data and one basis
+ * per scenario are kept, so the memory grows linearly with the number of scenarios.
+ *
+ * The recourse must be relatively complete: every scenario subproblem must be feasible
+ * for every first stage decision satisfying A x (operator) b.
+ */
+public class StochasticProgram {
+
+    private double[] objectiveFunction;
+    private double[][] constraintLeftSide;
+    private double[] constraintRightSide;
+    private Constraint[] constraintOperators;
+    private ProblemKind maximizeOrMinimize;
+    private List<Scenario> scenarios;
+
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private double tolerance = 1.0E-6;
+    private int maxIterations = 500;
+
+    private double sign; // -1 for MAXIMIZATION problems, solved internally as MINIMIZATION
+
+    private int[][] bases; // last optimal basis of each scenario subproblem
+    private int[] masterBasis;
+    private Simplex master = new Simplex(); // its workspace is reused by every master re-solve
+
+    private ThreadLocal<Simplex> simplex = Workers.simplexPerThread();
+
+    private double[] x; // best first stage solution
+    private double[][] y; // recourse of each scenario for the best first stage solution
+    private double upperBound;
+    private double lowerBound;
+    private int iterations;
+
+    /**
+     * Returns a StochasticProgram object.
+     *
+     * @param objectiveFunction the first stage objective coefficients c
+     * @param constraintLeftSide the first stage constraints A
+     * @param constraintRightSide the first stage right side b
+     * @param constraintOperator the operator of each first stage constraint
+     * @param maximizeOrMinimize the problem kind
+     * @param scenarios the recourse data of each scenario
+     */
+    public StochasticProgram(double[] objectiveFunction, double[][] constraintLeftSide,
+                             double[] constraintRightSide, Constraint[] constraintOperator,
+                             ProblemKind maximizeOrMinimize, List<Scenario> scenarios) {
+        this.objectiveFunction = objectiveFunction;
+        this.constraintLeftSide = constraintLeftSide;
+        this.constraintRightSide = constraintRightSide;
+        this.constraintOperators = constraintOperator;
+        this.maximizeOrMinimize = maximizeOrMinimize;
+        this.scenarios = scenarios;
+        this.sign = maximizeOrMinimize.equals(ProblemKind.MAXIMIZE) ? -1 : 1;
+    }
+
+    public void setThreads(int threads) { this.threads = threads; }
+
+    public void setTolerance(double tolerance) { this.tolerance = tolerance; }
+
+    public void setMaxIterations(int maxIterations) { this.maxIterations = maxIterations; }
+
+    /**
+     * Alternate between the master problem and the scenario subproblems until the
+     * lower bound (master) and the upper bound (best evaluated first stage) meet.
+     */
+    public void solve() {
+        int numberOfVariables = objectiveFunction.length;
+
+        bases = new int[scenarios.size()][];
+        y = new double[scenarios.size()][];
+        masterBasis = null;
+        upperBound = Double.POSITIVE_INFINITY;
+        lowerBound = Double.NEGATIVE_INFINITY;
+
+        List<double[]> cutLeftSide = new ArrayList<double[]>();
+        List<Double> cutRightSide = new ArrayList<Double>();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (iterations = 1; iterations <= maxIterations; iterations++) {
+
+                // MASTER: first stage plus theta = theta+ - theta-, the approximation of the recourse
+                master.solve(buildMaster(cutLeftSide, cutRightSide), masterBasis);
+                double[] solution = master.primal();
+                double[] candidate = new double[numberOfVariables];
+                System.arraycopy(solution, 0, candidate, 0, numberOfVariables);
+
+                int[] basis = master.getBasis();
+                int structural = 0;
+                for (int i = 0; i < basis.length; i++)
+                    if (basis[i] < numberOfVariables + 2)
+                        structural++;
+                masterBasis = new int[structural];
+                structural = 0;
+                for (int i = 0; i < basis.length; i++)
+                    if (basis[i] < numberOfVariables + 2)
+                        masterBasis[structural++] = basis[i];
+
+                if (!cutLeftSide.isEmpty())
+                    lowerBound = master.value();
+
+                // SUBPROBLEMS
+                List<Future<double[]>> futures = new ArrayList<Future<double[]>>();
+                for (int s = 0; s < scenarios.size(); s++)
+                    futures.add(executor.submit(subproblem(s, candidate)));
+
+                double firstStage = 0;
+                for (int j = 0; j < numberOfVariables; j++)
+                    firstStage += sign * objectiveFunction[j] * candidate[j];
+
+                double expectedRecourse = 0;
+                double[] cut = new double[numberOfVariables + 2];
+                double cutRight = 0;
+                double[][] recourse = new double[scenarios.size()][];
+
+                for (int s = 0; s < scenarios.size(); s++) {
+                    double[] result = Workers.get(futures.get(s));
+                    Scenario scenario = scenarios.get(s);
+                    double p = scenario.getProbability();
+                    double[][] t = scenario.getTechnology();
+                    double[] h = scenario.getConstraintRightSide();
+                    int secondStage = scenario.getObjectiveFunction().length;
+
+                    // result = [ value | dual | recourse ]
+                    expectedRecourse += p * result[0];
+                    for (int i = 0; i < h.length; i++) {
+                        double pi = p * result[1 + i];
+                        cutRight += pi * h[i];
+                        for (int j = 0; j < numberOfVariables; j++)
+                            cut[j] += pi * t[i][j];
+                    }
+                    recourse[s] = new double[secondStage];
+                    System.arraycopy(result, 1 + h.length, recourse[s], 0, secondStage);
+                }
+
+                if (firstStage + expectedRecourse < upperBound) {
+                    upperBound = firstStage + expectedRecourse;
+                    x = candidate;
+                    y = recourse;
+                }
+
+                if (upperBound - lowerBound <= tolerance * (1 + Math.abs(upperBound)))
+                    return; // optimal
+
+                // optimality cut: theta + (sum_s p_s pi_s T_s) x >= sum_s p_s pi_s h_s
+                cut[numberOfVariables] = 1;
+                cut[numberOfVariables + 1] = -1;
+                cutLeftSide.add(cut);
+                cutRightSide.add(cutRight);
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        throw new ArithmeticException("Benders decomposition did not converge");
+    }
+
+    /**
+     * Build the master problem: the first stage constraints and the cuts found so far.
+     * Before the first cut theta has no cost, since nothing is known about the recourse.
+     */
+    private Modeler buildMaster(List<double[]> cutLeftSide, List<Double> cutRightSide) {
+        int numberOfVariables = objectiveFunction.length;
+        int numberOfConstraints = constraintRightSide.length;
+        int numberOfRows = numberOfConstraints + cutRightSide.size();
+
+        double[][] left = new double[numberOfRows][];
+        double[] right = new double[numberOfRows];
+        Constraint[] operators = new Constraint[numberOfRows];
+        for (int i = 0; i < numberOfConstraints; i++) {
+            left[i] = new double[numberOfVariables + 2];
+            System.arraycopy(constraintLeftSide[i], 0, left[i], 0, numberOfVariables);
+            right[i] = constraintRightSide[i];
+            operators[i] = constraintOperators[i];
+        }
+        for (int k = 0; k < cutRightSide.size(); k++) {
+            left[numberOfConstraints + k] = cutLeftSide.get(k);
+            right[numberOfConstraints + k] = cutRightSide.get(k);
+            operators[numberOfConstraints + k] = Constraint.greaterThan;
+        }
+
+        double[] cost = new double[numberOfVariables + 2];
+        for (int j = 0; j < numberOfVariables; j++)
+            cost[j] = sign * objectiveFunction[j];
+        if (!cutRightSide.isEmpty()) {
+            cost[numberOfVariables] = 1;
+            cost[numberOfVariables + 1] = -1;
+        }
+
+        return new Modeler(left, right, operators, cost, ProblemKind.MINIMIZE);
+    }
+
+    /**
+     * Solve the recourse problem of scenario s for the first stage decision x, starting from
+     * the basis of its previous solve.
+     *
+     * @return [ optimal value | dual values | recourse decisions ]
+     */
+    private Callable<double[]> subproblem(final int s, final double[] x) {
+        return new Callable<double[]>() {
+            @Override
+            public double[] call() {
+                Scenario scenario = scenarios.get(s);
+                double[][] t = scenario.getTechnology();
+                double[] h = scenario.getConstraintRightSide();
+                double[] q = scenario.getObjectiveFunction();
+
+                double[] right = new double[h.length];
+                for (int i = 0; i < h.length; i++) {
+                    right[i] = h[i];
+                    for (int j = 0; j < x.length; j++)
+                        right[i] -= t[i][j] * x[j];
+                }
+
+                double[] cost = new double[q.length];
+                for (int j = 0; j < q.length; j++)
+                    cost[j] = sign * q[j];
+
+                Modeler model = new Modeler(scenario.getRecourse(), right,
+                        scenario.getConstraintOperators(), cost, ProblemKind.MINIMIZE);
+                Simplex scenarioSimplex = simplex.get();
+                scenarioSimplex.solve(model, bases[s]);
+                bases[s] = scenarioSimplex.getBasis();
+
+                double[] dual = scenarioSimplex.dual();
+                double[] solution = scenarioSimplex.primal();
+
+                double[] result = new double[1 + h.length + q.length];
+                result[0] = scenarioSimplex.value();
+                System.arraycopy(dual, 0, result, 1, h.length);
+                System.arraycopy(solution, 0, result, 1 + h.length, q.length);
+                return result;
+            }
+        };
+    }
+
+    /**
+     * Optimal value of the problem (first stage cost plus expected recourse).
+     *
+     * @return the optimal objective value
+     */
+    public double value() {
+        return sign * upperBound;
+    }
+
+    /**
+     * The first stage decisions.
+     *
+     * @return the primal solution vector of the first stage.
+     */
+    public double[] primal() {
+        return x.clone();
+    }
+
+    /**
+     * The second stage decisions of one scenario.
+     *
+     * @param s the scenario index
+     * @return the recourse solution vector of the scenario.
+     */
+    public double[] recourse(int s) {
+        return y[s].clone();
+    }
+
+    /**
+     * Number of master problems solved.
+     *
+     * @return the number of iterations
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+}
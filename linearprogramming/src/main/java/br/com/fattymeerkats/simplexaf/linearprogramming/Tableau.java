@@ -0,0 +1,38 @@
+package br.com.fattymeerkats.simplexaf.linearprogramming;
+
+/**
+ * Storage of the tableaux built by the {@link Modeler} and transformed by the {@link Simplex}.
+ */
+public interface Tableau {
+
+    int getNumberOfRows();
+
+    int getNumberOfColumns();
+
+    double get(int i, int j);
+
+    void set(int i, int j, double value);
+
+    /**
+     * Copy row i into the destination array.
+     */
+    void readRow(int i, double[] destination);
+
+    /**
+     * Row operation of the Gauss-Jordan elimination: row i -= factor * source.
+     *
+     * @param i the index of the row to update
+     * @param factor the multiplier of the source row
+     * @param source the source row (usually the pivot row)
+     */
+    void subtractRow(int i, double factor, double[] source);
+
+    /**
+     * Row operation of the Gauss-Jordan elimination: row i = source / divisor.
+     *
+     * @param i the index of the row to overwrite
+     * @param divisor the divisor of the source row (usually the pivot)
+     * @param source the source row
+     */
+    void scaleRow(int i, double divisor, double[] source);
+}
@@ -0,0 +1,9 @@
+package br.com.fattymeerkats.simplexaf.linearprogramming;
+
+/**
+ * Where the tableaux lives: in the Java heap, in direct (off-heap) buffers, or in a
+ * memory-mapped temporary file paged in and out by the operating system.
+ */
+public enum TableauStorage {
+    HEAP, DIRECT, MAPPED
+}
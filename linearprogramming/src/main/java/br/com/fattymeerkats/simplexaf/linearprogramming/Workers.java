@@ -0,0 +1,61 @@
+package br.com.fattymeerkats.simplexaf.linearprogramming;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Helpers shared by the solvers that spread their subproblems over worker threads.
+ */
+public final class Workers {
+
+    private Workers() {
+    }
+
+    /**
+     * Returns a Simplex per thread, so each worker reuses the workspace of its own Simplex.
+     *
+     * @return the per thread Simplex
+     */
+    public static ThreadLocal<Simplex> simplexPerThread() {
+        return new ThreadLocal<Simplex>() {
+            @Override
+            protected Simplex initialValue() {
+                return new Simplex();
+            }
+        };
+    }
+
+    /**
+     * Returns an empty Modeler per thread, so each worker reloads its problems into the tableaux
+     * of its own Modeler.
+     *
+     * @return the per thread Modeler
+     */
+    public static ThreadLocal<Modeler> modelerPerThread() {
+        return new ThreadLocal<Modeler>() {
+            @Override
+            protected Modeler initialValue() {
+                return new Modeler();
+            }
+        };
+    }
+
+    /**
+     * Wait for the result of a worker, rethrowing what the worker threw.
+     *
+     * @param future the pending result
+     * @return the result
+     */
+    public static <T> T get(Future<T> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw new RuntimeException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package br.com.fattymeerkats.simplexaf.linearprogramming.batch;
+
+import br.com.fattymeerkats.simplexaf.linearprogramming.Constraint;
+import br.com.fattymeerkats.simplexaf.linearprogramming.Modeler;
+import br.com.fattymeerkats.simplexaf.linearprogramming.ProblemKind;
+
+/**
+ * A model read by the {@link ModelReader}, or the syntax error found in it.
+ */
+public class BatchModel {
+
+    private String id;
+    private String error;
+
+    private double[][] constraintLeftSide;
+    private double[] constraintRightSide;
+    private Constraint[] constraintOperator;
+    private double[] objectiveFunction;
+    private ProblemKind maximizeOrMinimize;
+
+    BatchModel(String id, double[][] constraintLeftSide, double[] constraintRightSide,
+               Constraint[] constraintOperator, double[] objectiveFunction, ProblemKind maximizeOrMinimize) {
+        this.id = id;
+        this.constraintLeftSide = constraintLeftSide;
+        this.constraintRightSide = constraintRightSide;
+        this.constraintOperator = constraintOperator;
+        this.objectiveFunction = objectiveFunction;
+        this.maximizeOrMinimize = maximizeOrMinimize;
+    }
+
+    BatchModel(String id, String error) {
+        this.id = id;
+        this.error = error;
+    }
+
+    public String getId() { return id; }
+
+    /**
+     * The syntax error of the model (null when it was read correctly).
+     */
+    public String getError() { return error; }
+
+    public Modeler toModeler() {
+        return new Modeler(constraintLeftSide, constraintRightSide, constraintOperator,
+                objectiveFunction, maximizeOrMinimize);
+    }
+
+    /**
+     * Model the problem in the given Modeler, reusing its tableaux.
+     *
+     * @return the given Modeler
+     */
+    public Modeler toModeler(Modeler modeler) {
+        modeler.reload(constraintLeftSide, constraintRightSide, constraintOperator,
+                objectiveFunction, maximizeOrMinimize);
+        return modeler;
+    }
+
+    public int getNumberOfOriginalVariables() { return objectiveFunction.length; }
+
+}
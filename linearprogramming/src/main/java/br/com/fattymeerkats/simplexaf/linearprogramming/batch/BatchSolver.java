@@ -0,0 +1,192 @@
+package br.com.fattymeerkats.simplexaf.linearprogramming.batch;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import br.com.fattymeerkats.simplexaf.linearprogramming.Modeler;
+import br.com.fattymeerkats.simplexaf.linearprogramming.Simplex;
+import br.com.fattymeerkats.simplexaf.linearprogramming.Workers;
+
+/**
+ * Headless command line runner: reads the models (see {@link ModelReader}) from the files of a
+ * directory or from the standard input, solves them with a pool of worker threads and writes
+ * one line per model, in the order they are solved:
+ *
+ * <pre>
+ * &lt;id&gt; optimal &lt;value&gt; &lt;x1&gt; ... &lt;xn&gt;
+ * &lt;id&gt; infeasible
+ * &lt;id&gt; unbounded
+ * &lt;id&gt; error &lt;message&gt;
+ * </pre>
+ *
+ * Usage: BatchSolver [-threads N] [-output file] [directory | -]
+ */
+public class BatchSolver {
+
+    private static final int QUEUED_MODELS_PER_THREAD = 4;
+
+    private PrintWriter output;
+    private ThreadPoolExecutor workers;
+    private int solved;
+
+    private ThreadLocal<Simplex> simplex = Workers.simplexPerThread();
+    private ThreadLocal<Modeler> modeler = Workers.modelerPerThread();
+
+    public BatchSolver(int threads, PrintWriter output) {
+        this.output = output;
+        // a full queue makes the reader solve the model itself, which stops it from reading ahead
+        this.workers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(QUEUED_MODELS_PER_THREAD * threads),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Solve all the models of the stream.
+     *
+     * @param reader the stream of models
+     * @param source the name of the stream, used for the identifiers of unnamed models
+     */
+    public void solve(BufferedReader reader, String source) throws IOException {
+        ModelReader models = new ModelReader(reader, source);
+        for (BatchModel model = models.next(); model != null; model = models.next())
+            submit(model);
+    }
+
+    private void submit(final BatchModel model) {
+        workers.execute(new Runnable() {
+            @Override
+            public void run() {
+                write(solve(model));
+            }
+        });
+    }
+
+    /**
+     * Solve a model and format its result line.
+     */
+    private String solve(BatchModel model) {
+        StringBuilder line = new StringBuilder(model.getId()).append(' ');
+        if (model.getError() != null)
+            return line.append("error ").append(model.getError()).toString();
+
+        Simplex s = simplex.get();
+        try {
+            s.solve(model.toModeler(modeler.get()));
+        } catch (ArithmeticException e) {
+            String message = String.valueOf(e.getMessage());
+            if (message.contains("infeasible") && !message.contains("unbounded"))
+                return line.append("infeasible").toString();
+            if (message.contains("unbounded") && !message.contains("infeasible"))
+                return line.append("unbounded").toString();
+            return line.append("error ").append(message).toString();
+        } catch (RuntimeException e) {
+            return line.append("error ").append(e).toString();
+        }
+
+        line.append("optimal ").append(s.value());
+        double[] x = s.primal();
+        for (int j = 0; j < model.getNumberOfOriginalVariables(); j++)
+            line.append(' ').append(x[j]);
+        return line.toString();
+    }
+
+    private void write(String line) {
+        synchronized (output) {
+            output.println(line);
+            solved++;
+        }
+    }
+
+    /**
+     * Wait for the submitted models to be solved, then flush the output.
+     *
+     * @return the number of models solved
+     */
+    public int finish() throws InterruptedException {
+        workers.shutdown();
+        while (!workers.awaitTermination(1, TimeUnit.MINUTES))
+            ; // keep waiting, long batches are expected
+        synchronized (output) {
+            output.flush();
+            return solved;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int threads = Runtime.getRuntime().availableProcessors();
+        String outputFile = null;
+        String input = "-";
+
+        for (int k = 0; k < args.length; k++) {
+            if (args[k].equals("-threads") && k + 1 < args.length)
+                threads = Integer.parseInt(args[++k]);
+            else if (args[k].equals("-output") && k + 1 < args.length)
+                outputFile = args[++k];
+            else if (!args[k].startsWith("-") || args[k].equals("-"))
+                input = args[k];
+            else
+                usage();
+        }
+        if (threads < 1)
+            usage();
+
+        OutputStream stream = outputFile == null ? System.out : new FileOutputStream(outputFile);
+        PrintWriter output = new PrintWriter(new BufferedWriter(new OutputStreamWriter(stream, "UTF-8"), 1 << 16));
+        BatchSolver batch = new BatchSolver(threads, output);
+
+        long start = System.nanoTime();
+        int solved;
+        try {
+            if (input.equals("-"))
+                batch.solve(open(System.in), "stdin");
+            else {
+                File directory = new File(input);
+                File[] files = directory.isDirectory() ? directory.listFiles() : new File[] { directory };
+                if (files == null)
+                    throw new IOException("can't list " + directory);
+                Arrays.sort(files);
+                for (File file : files) {
+                    if (!file.isFile())
+                        continue;
+                    BufferedReader reader = open(new FileInputStream(file));
+                    try {
+                        batch.solve(reader, file.getName());
+                    } finally {
+                        reader.close();
+                    }
+                }
+            }
+        } finally {
+            // the workers are not daemon threads: stop them even when the input fails
+            solved = batch.finish();
+            output.close();
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.err.printf("%d models in %.3f s (%.1f models/s, %d threads)%n",
+                solved, seconds, solved / seconds, threads);
+    }
+
+    private static BufferedReader open(InputStream stream) throws IOException {
+        return new BufferedReader(new InputStreamReader(stream, "UTF-8"), 1 << 16);
+    }
+
+    private static void usage() {
+        System.err.println("usage: BatchSolver [-threads N] [-output file] [directory | -]");
+        System.exit(1);
+    }
+
+}
@@ -0,0 +1,139 @@
+package br.com.fattymeerkats.simplexaf.linearprogramming.batch;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import br.com.fattymeerkats.simplexaf.linearprogramming.Constraint;
+import br.com.fattymeerkats.simplexaf.linearprogramming.ProblemKind;
+
+/**
+ * Reads the models of a stream in the batch text format, one model after the other:
+ *
+ * <pre>
+ * # comment
+ * model farm-42          (optional identifier)
+ * max 3 2                (max or min, then the objective function)
+ * 1 1 &lt;= 4              (the constraint coefficients, operator and right side)
+ * 1 3 &gt;= 2
+ * 2 1 = 5
+ *                        (a blank line or the end of the stream ends the model)
+ * </pre>
+ *
+ * A model with a syntax error is returned with its error message, so that the next models
+ * can still be read.
+ */
+public class ModelReader {
+
+    private BufferedReader reader;
+    private String source;
+    private int lineNumber;
+    private int count;
+
+    /**
+     * @param reader the stream of models
+     * @param source the name of the stream, used for the identifiers of unnamed models
+     */
+    public ModelReader(BufferedReader reader, String source) {
+        this.reader = reader;
+        this.source = source;
+    }
+
+    /**
+     * Read the next model.
+     *
+     * @return the model, or null at the end of the stream
+     */
+    public BatchModel next() throws IOException {
+        String line = nextLine();
+        while (line != null && line.isEmpty())
+            line = nextLine();
+        if (line == null)
+            return null;
+
+        count++;
+        String id = source + ":" + count;
+        String error = null;
+
+        ProblemKind kind = null;
+        double[] objectiveFunction = null;
+        List<double[]> leftSides = new ArrayList<double[]>();
+        List<Double> rightSides = new ArrayList<Double>();
+        List<Constraint> operators = new ArrayList<Constraint>();
+
+        for (; line != null && !line.isEmpty(); line = nextLine()) {
+            if (error != null)
+                continue; // skip the rest of the model
+            String[] tokens = line.split("\\s+");
+            try {
+                if (tokens[0].equals("model")) {
+                    if (tokens.length != 2)
+                        throw new IllegalArgumentException("expected: model <id>");
+                    id = tokens[1];
+                } else if (tokens[0].equals("max") || tokens[0].equals("min")) {
+                    if (kind != null)
+                        throw new IllegalArgumentException("objective function given twice");
+                    kind = tokens[0].equals("max") ? ProblemKind.MAXIMIZE : ProblemKind.MINIMIZE;
+                    objectiveFunction = new double[tokens.length - 1];
+                    for (int j = 1; j < tokens.length; j++)
+                        objectiveFunction[j - 1] = Double.parseDouble(tokens[j]);
+                } else {
+                    if (kind == null)
+                        throw new IllegalArgumentException("constraint before the objective function");
+                    if (tokens.length != objectiveFunction.length + 2)
+                        throw new IllegalArgumentException("expected " + objectiveFunction.length
+                                + " coefficients, an operator and a right side");
+                    double[] leftSide = new double[objectiveFunction.length];
+                    for (int j = 0; j < leftSide.length; j++)
+                        leftSide[j] = Double.parseDouble(tokens[j]);
+                    leftSides.add(leftSide);
+                    operators.add(operator(tokens[leftSide.length]));
+                    rightSides.add(Double.parseDouble(tokens[leftSide.length + 1]));
+                }
+            } catch (IllegalArgumentException e) { // NumberFormatException too
+                error = "line " + lineNumber + ": " + e.getMessage();
+            }
+        }
+
+        if (error == null && kind == null)
+            error = "missing objective function";
+        if (error == null && leftSides.isEmpty())
+            error = "missing constraints";
+        if (error != null)
+            return new BatchModel(id, error);
+
+        double[][] constraintLeftSide = leftSides.toArray(new double[leftSides.size()][]);
+        double[] constraintRightSide = new double[rightSides.size()];
+        for (int i = 0; i < constraintRightSide.length; i++)
+            constraintRightSide[i] = rightSides.get(i);
+
+        return new BatchModel(id, constraintLeftSide, constraintRightSide,
+                operators.toArray(new Constraint[operators.size()]), objectiveFunction, kind);
+    }
+
+    /**
+     * The next line, trimmed and without comments (null at the end of the stream).
+     */
+    private String nextLine() throws IOException {
+        String line = reader.readLine();
+        if (line == null)
+            return null;
+        lineNumber++;
+        int comment = line.indexOf('#');
+        if (comment != -1)
+            line = line.substring(0, comment);
+        return line.trim();
+    }
+
+    private static Constraint operator(String token) {
+        if (token.equals("<="))
+            return Constraint.lessThan;
+        if (token.equals(">="))
+            return Constraint.greaterThan;
+        if (token.equals("="))
+            return Constraint.equal;
+        throw new IllegalArgumentException("unknown operator " + token);
+    }
+
+}
@@ -0,0 +1,119 @@
+package br.com.fattymeerkats.simplexaf.linearprogramming;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ColumnGenerationTest {
+
+    // cutting stock: rolls of width 10 cut into pieces of widths 3, 4 and 5
+    private static final int ROLL = 10;
+    private static final int[] WIDTHS = {3, 4, 5};
+    private static final double[] DEMANDS = {30, 20, 10};
+    private static final Constraint[] OPERATORS = {Constraint.greaterThan, Constraint.greaterThan, Constraint.greaterThan};
+
+    /**
+     * Every cutting pattern of a roll, as columns of cost 1 (one roll each).
+     */
+    private static List<Column> patterns() {
+        List<Column> patterns = new ArrayList<Column>();
+        for (int a = 0; a <= ROLL / WIDTHS[0]; a++)
+            for (int b = 0; b <= ROLL / WIDTHS[1]; b++)
+                for (int c = 0; c <= ROLL / WIDTHS[2]; c++)
+                    if (a + b + c > 0 && a * WIDTHS[0] + b * WIDTHS[1] + c * WIDTHS[2] <= ROLL)
+                        patterns.add(new Column(1, new double[]{a, b, c}));
+        return patterns;
+    }
+
+    /**
+     * The whole problem, with every pattern, solved by a single Simplex.
+     */
+    private static double monolithicOptimum() {
+        List<Column> patterns = patterns();
+        double[][] constraintLeftSide = new double[DEMANDS.length][patterns.size()];
+        double[] objectiveFunction = new double[patterns.size()];
+        for (int j = 0; j < patterns.size(); j++) {
+            objectiveFunction[j] = patterns.get(j).getCost();
+            for (int i = 0; i < DEMANDS.length; i++)
+                constraintLeftSide[i][j] = patterns.get(j).getCoefficients()[i];
+        }
+        return RandomModel.optimum(new Modeler(constraintLeftSide, DEMANDS, OPERATORS,
+                objectiveFunction, ProblemKind.MINIMIZE));
+    }
+
+    /**
+     * The pattern with the largest dual value, if it is worth more than a roll.
+     */
+    private static PricingCallback knapsack() {
+        return new PricingCallback() {
+            @Override
+            public List<Column> price(double[] dual) {
+                List<Column> columns = new ArrayList<Column>();
+                Column best = null;
+                double bestValue = 1;
+                for (Column pattern : patterns()) {
+                    double value = 0;
+                    for (int i = 0; i < dual.length; i++)
+                        value += dual[i] * pattern.getCoefficients()[i];
+                    if (value > bestValue) {
+                        bestValue = value;
+                        best = pattern;
+                    }
+                }
+                if (best != null)
+                    columns.add(best);
+                return columns;
+            }
+        };
+    }
+
+    private static List<Column> singlePieceColumns() {
+        List<Column> columns = new ArrayList<Column>();
+        for (int i = 0; i < WIDTHS.length; i++) {
+            double[] coefficients = new double[WIDTHS.length];
+            coefficients[i] = ROLL / WIDTHS[i];
+            columns.add(new Column(1, coefficients));
+        }
+        return columns;
+    }
+
+    @Test
+    public void matchesTheMonolithicOptimum() {
+        ColumnGeneration columnGeneration = new ColumnGeneration(DEMANDS, OPERATORS, ProblemKind.MINIMIZE,
+                singlePieceColumns(), knapsack());
+        columnGeneration.solve();
+
+        assertEquals(monolithicOptimum(), columnGeneration.value(), 1.0E-9);
+        assertTrue(columnGeneration.getIterations() > 1);
+
+        double[] x = columnGeneration.primal();
+        List<Column> columns = columnGeneration.getColumns();
+        for (int i = 0; i < DEMANDS.length; i++) {
+            double produced = 0;
+            for (int j = 0; j < columns.size(); j++)
+                produced += columns.get(j).getCoefficients()[i] * x[j];
+            assertTrue(produced >= DEMANDS[i] - 1.0E-9);
+        }
+    }
+
+    @Test
+    public void purgingKeepsTheOptimum() {
+        ColumnGeneration columnGeneration = new ColumnGeneration(DEMANDS, OPERATORS, ProblemKind.MINIMIZE,
+                singlePieceColumns(), knapsack());
+        columnGeneration.setMaxAge(1);
+        columnGeneration.setMaxColumns(1);
+        columnGeneration.solve();
+
+        assertEquals(monolithicOptimum(), columnGeneration.value(), 1.0E-9);
+        // every column outside the basis of the final master counts against maxColumns
+        int nonBasic = columnGeneration.getColumns().size();
+        for (int column : columnGeneration.getMaster().getBasis())
+            if (column < columnGeneration.getColumns().size())
+                nonBasic--;
+        assertTrue(nonBasic <= 1);
+    }
+}
@@ -0,0 +1,54 @@
+package br.com.fattymeerkats.simplexaf.linearprogramming;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CrashBasisTest {
+
+    @Test
+    public void crashedSolvesMatchTheColdOptimum() {
+        Random random = new Random(33);
+        for (int t = 0; t < 30; t++) {
+            ProblemKind kind = t % 2 == 0 ? ProblemKind.MAXIMIZE : ProblemKind.MINIMIZE;
+            RandomModel model = new RandomModel(random, 3 + random.nextInt(12), 2 + random.nextInt(12), kind);
+            double optimum = RandomModel.optimum(model.toModeler());
+
+            Modeler modeler = model.toModeler();
+            int[][] crash = CrashBasis.triangular(modeler);
+            Simplex simplex = new Simplex();
+            simplex.solve(modeler, crash[0], crash[1]);
+
+            assertEquals(optimum, simplex.value(), 1.0E-9 * (1 + Math.abs(optimum)));
+            // the crash basis is triangular, so every column is pivoted in
+            assertEquals(crash[0].length, simplex.getCrashIterations());
+        }
+    }
+
+    @Test
+    public void crashPairsOriginalVariablesWithInfeasibleRows() {
+        RandomModel model = new RandomModel(new Random(133), 9, 6, ProblemKind.MINIMIZE);
+        Modeler modeler = model.toModeler();
+        Tableau tableaux = modeler.getTableau();
+        int rightSide = modeler.getNumberOfConstraints() + modeler.getNumberOfOriginalVariables();
+
+        int[][] crash = CrashBasis.triangular(modeler);
+
+        assertTrue(crash[0].length > 0);
+        assertEquals(crash[0].length, crash[1].length);
+        boolean[] taken = new boolean[modeler.getNumberOfConstraints()];
+        for (int k = 0; k < crash[0].length; k++) {
+            int column = crash[0][k];
+            int row = crash[1][k];
+            assertTrue(column >= 0 && column < modeler.getNumberOfOriginalVariables());
+            assertFalse(taken[row]);
+            taken[row] = true;
+            assertTrue(tableaux.get(row, rightSide) < 0);
+            assertTrue(tableaux.get(row, column) < 0);
+        }
+    }
+}
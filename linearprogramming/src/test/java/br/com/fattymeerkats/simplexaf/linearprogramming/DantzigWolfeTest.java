@@ -0,0 +1,93 @@
+package br.com.fattymeerkats.simplexaf.linearprogramming;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DantzigWolfeTest {
+
+    @Test
+    public void matchesTheMonolithicOptimum() {
+        Random random = new Random(28);
+        for (int t = 0; t < 10; t++) {
+            int farms = 2 + random.nextInt(3);
+            int crops = 2 + random.nextInt(3);
+            int linking = 1 + random.nextInt(2);
+            int numberOfVariables = farms * crops;
+            int numberOfConstraints = linking + 2 * farms;
+
+            double[][] constraintLeftSide = new double[numberOfConstraints][numberOfVariables];
+            double[] constraintRightSide = new double[numberOfConstraints];
+            Constraint[] constraintOperators = new Constraint[numberOfConstraints];
+            Arrays.fill(constraintOperators, Constraint.lessThan);
+            for (int i = 0; i < linking; i++) {
+                for (int j = 0; j < numberOfVariables; j++)
+                    constraintLeftSide[i][j] = 1 + random.nextInt(5);
+                constraintRightSide[i] = 20 + random.nextInt(40);
+            }
+            for (int f = 0; f < farms; f++)
+                for (int k = 0; k < 2; k++) {
+                    int i = linking + 2 * f + k;
+                    for (int j = 0; j < crops; j++)
+                        constraintLeftSide[i][f * crops + j] = 1 + random.nextInt(4);
+                    constraintRightSide[i] = 5 + random.nextInt(20);
+                }
+            double[] objectiveFunction = new double[numberOfVariables];
+            for (int j = 0; j < numberOfVariables; j++)
+                objectiveFunction[j] = 1 + random.nextInt(9);
+
+            double optimum = RandomModel.optimum(new Modeler(constraintLeftSide, constraintRightSide,
+                    constraintOperators, objectiveFunction, ProblemKind.MAXIMIZE));
+
+            DantzigWolfe dantzigWolfe = DantzigWolfe.detectBlocks(constraintLeftSide, constraintRightSide,
+                    constraintOperators, objectiveFunction, ProblemKind.MAXIMIZE);
+            dantzigWolfe.setThreads(2);
+            dantzigWolfe.solve();
+
+            assertEquals(farms, dantzigWolfe.getBlocks().size());
+            assertEquals(optimum, dantzigWolfe.value(), 1.0E-6 * (1 + Math.abs(optimum)));
+            assertTrue(RandomModel.violation(constraintLeftSide, constraintRightSide, constraintOperators,
+                    dantzigWolfe.primal()) < 1.0E-6);
+        }
+    }
+
+    @Test
+    public void detectsASparseLinkingConstraint() {
+        // two farms of three crops each, tied only by a sparse row on one crop of each farm
+        double[][] constraintLeftSide = {
+                {0, 1, 0, 1, 0, 0},
+                {1, 1, 1, 0, 0, 0},
+                {2, 1, 3, 0, 0, 0},
+                {0, 0, 0, 1, 2, 1},
+                {0, 0, 0, 3, 1, 1}};
+        double[] constraintRightSide = {4, 10, 15, 12, 9};
+        Constraint[] constraintOperators = new Constraint[5];
+        Arrays.fill(constraintOperators, Constraint.lessThan);
+        double[] objectiveFunction = {3, 5, 4, 6, 2, 3};
+
+        double optimum = RandomModel.optimum(new Modeler(constraintLeftSide, constraintRightSide,
+                constraintOperators, objectiveFunction, ProblemKind.MAXIMIZE));
+
+        DantzigWolfe dantzigWolfe = DantzigWolfe.detectBlocks(constraintLeftSide, constraintRightSide,
+                constraintOperators, objectiveFunction, ProblemKind.MAXIMIZE);
+        dantzigWolfe.solve();
+
+        assertEquals(2, dantzigWolfe.getBlocks().size());
+        assertArrayEquals(new int[]{0, 1, 2}, dantzigWolfe.getBlocks().get(0).getVariables());
+        assertArrayEquals(new int[]{3, 4, 5}, dantzigWolfe.getBlocks().get(1).getVariables());
+        assertEquals(optimum, dantzigWolfe.value(), 1.0E-9);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsAProblemWithoutBlocks() {
+        double[][] constraintLeftSide = {{1, 1}, {1, 2}};
+        DantzigWolfe.detectBlocks(constraintLeftSide, new double[]{4, 6},
+                new Constraint[]{Constraint.lessThan, Constraint.lessThan}, new double[]{1, 1},
+                ProblemKind.MAXIMIZE);
+    }
+}
@@ -0,0 +1,121 @@
+package br.com.fattymeerkats.simplexaf.linearprogramming;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class InteriorPointTest {
+
+    private static final double TOLERANCE = 1.0E-6;
+
+    @Test
+    public void matchesTheSimplexOptimum() {
+        Random random = new Random(26);
+        for (int t = 0; t < 20; t++) {
+            ProblemKind kind = t % 2 == 0 ? ProblemKind.MAXIMIZE : ProblemKind.MINIMIZE;
+            RandomModel model = new RandomModel(random, 3 + random.nextInt(8), 2 + random.nextInt(10), kind);
+            double optimum = RandomModel.optimum(model.toModeler());
+
+            InteriorPoint interiorPoint = new InteriorPoint(model.toModeler());
+
+            assertEquals(optimum, interiorPoint.value(), TOLERANCE * (1 + Math.abs(optimum)));
+            assertTrue(model.violation(interiorPoint.primal()) < TOLERANCE);
+        }
+    }
+
+    @Test
+    public void crossoverReachesABasicOptimum() {
+        Random random = new Random(126);
+        for (int t = 0; t < 20; t++) {
+            ProblemKind kind = t % 2 == 0 ? ProblemKind.MAXIMIZE : ProblemKind.MINIMIZE;
+            RandomModel model = new RandomModel(random, 3 + random.nextInt(8), 2 + random.nextInt(10), kind);
+            double optimum = RandomModel.optimum(model.toModeler());
+
+            Simplex crossover = new InteriorPoint(model.toModeler()).crossover();
+
+            assertEquals(optimum, crossover.value(), 1.0E-9 * (1 + Math.abs(optimum)));
+            assertTrue(model.violation(crossover.primal()) < 1.0E-9);
+        }
+    }
+
+    @Test
+    public void dualMatchesTheSimplex() {
+        Random random = new Random(126);
+        for (int t = 0; t < 20; t++) {
+            ProblemKind kind = t % 2 == 0 ? ProblemKind.MAXIMIZE : ProblemKind.MINIMIZE;
+            RandomModel model = new RandomModel(random, 3 + random.nextInt(8), 2 + random.nextInt(10), kind);
+            Simplex simplex = new Simplex();
+            simplex.solve(model.toModeler());
+
+            InteriorPoint interiorPoint = new InteriorPoint(model.toModeler());
+
+            double objective = 1 + Math.abs(simplex.value());
+            double[] dual = interiorPoint.dual();
+            assertEquals(model.constraintRightSide.length, dual.length);
+            // the duals can be degenerate, so compare the dual objective b'y instead of y
+            double simplexObjective = 0;
+            double interiorPointObjective = 0;
+            for (int i = 0; i < dual.length; i++) {
+                simplexObjective += model.constraintRightSide[i] * simplex.dual()[i];
+                interiorPointObjective += model.constraintRightSide[i] * dual[i];
+            }
+            assertEquals(simplexObjective, interiorPointObjective, TOLERANCE * objective);
+        }
+        assertArrayEquals(new double[]{40, 0, -28}, new InteriorPoint(example()).dual(), TOLERANCE);
+    }
+
+    @Test
+    public void handlesAnEqualConstraint() {
+        Modeler model = new Modeler(new double[][]{{1, 1}, {1, 0}, {0, 1}}, new double[]{4, 3, 2},
+                new Constraint[]{Constraint.equal, Constraint.lessThan, Constraint.lessThan},
+                new double[]{2, 3}, ProblemKind.MINIMIZE);
+        Simplex simplex = new Simplex();
+        simplex.solve(new Modeler(new double[][]{{1, 1}, {1, 0}, {0, 1}}, new double[]{4, 3, 2},
+                new Constraint[]{Constraint.equal, Constraint.lessThan, Constraint.lessThan},
+                new double[]{2, 3}, ProblemKind.MINIMIZE));
+
+        InteriorPoint interiorPoint = new InteriorPoint(model);
+
+        assertEquals(simplex.value(), interiorPoint.value(), TOLERANCE);
+        assertArrayEquals(simplex.dual(), interiorPoint.dual(), TOLERANCE);
+        // one value per tableaux row: the equal constraint has a second, negated row
+        assertArrayEquals(new double[]{4, -4, 3, 1},
+                interiorPoint.constraintsFinalValues(interiorPoint.primal()), TOLERANCE);
+    }
+
+    private static Modeler example() {
+        double[][] constraintLeftSide = {{1, 1}, {1, 3}, {1, 0}};
+        double[] constraintRightSide = {16, 36, 10};
+        Constraint[] constraintOperators = {Constraint.lessThan, Constraint.lessThan, Constraint.greaterThan};
+        double[] objectiveFunction = {12, 40};
+        return new Modeler(constraintLeftSide, constraintRightSide, constraintOperators,
+                objectiveFunction, ProblemKind.MAXIMIZE);
+    }
+
+    @Test
+    public void solvesThroughLinearSolvers() {
+        // the Simplex pivots the tableaux in place, so each solver gets its own model
+        LinearSolver simplex = LinearSolvers.solve(example(), SolverKind.SIMPLEX);
+        LinearSolver interiorPoint = LinearSolvers.solve(example(), SolverKind.INTERIOR_POINT);
+        LinearSolver crossover = LinearSolvers.solve(example(), SolverKind.INTERIOR_POINT, true);
+
+        assertEquals(360, simplex.value(), 1.0E-9);
+        assertEquals(360, interiorPoint.value(), TOLERANCE);
+        assertEquals(360, crossover.value(), 1.0E-9);
+        assertEquals(10, interiorPoint.primal()[0], TOLERANCE);
+        assertEquals(6, interiorPoint.primal()[1], TOLERANCE);
+        assertArrayEquals(simplex.primal(), crossover.primal(), 1.0E-9);
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void rejectsAnInfeasibleProblem() {
+        Modeler model = new Modeler(new double[][]{{1, 1}, {1, 1}}, new double[]{2, 5},
+                new Constraint[]{Constraint.lessThan, Constraint.greaterThan}, new double[]{1, 1},
+                ProblemKind.MAXIMIZE);
+        new InteriorPoint(model);
+    }
+}
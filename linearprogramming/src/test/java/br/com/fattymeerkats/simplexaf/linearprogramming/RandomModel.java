@@ -0,0 +1,85 @@
+package br.com.fattymeerkats.simplexaf.linearprogramming;
+
+import java.util.Random;
+
+/**
+ * A small random problem that is always feasible and bounded: every third constraint is a
+ * "greaterThan" with a small right side, the others are "lessThan" with a large one, and all
+ * the coefficients are positive.
+ */
+class RandomModel {
+
+    double[][] constraintLeftSide;
+    double[] constraintRightSide;
+    Constraint[] constraintOperators;
+    double[] objectiveFunction;
+    ProblemKind maximizeOrMinimize;
+
+    RandomModel(Random random, int numberOfConstraints, int numberOfVariables, ProblemKind maximizeOrMinimize) {
+        this.maximizeOrMinimize = maximizeOrMinimize;
+
+        constraintLeftSide = new double[numberOfConstraints][numberOfVariables];
+        constraintRightSide = new double[numberOfConstraints];
+        constraintOperators = new Constraint[numberOfConstraints];
+        for (int i = 0; i < numberOfConstraints; i++) {
+            for (int j = 0; j < numberOfVariables; j++)
+                constraintLeftSide[i][j] = 1 + random.nextInt(9);
+            if (i % 3 == 0) {
+                constraintOperators[i] = Constraint.greaterThan;
+                constraintRightSide[i] = 10 + random.nextInt(10);
+            } else {
+                constraintOperators[i] = Constraint.lessThan;
+                constraintRightSide[i] = 100 + random.nextInt(100);
+            }
+        }
+
+        objectiveFunction = new double[numberOfVariables];
+        for (int j = 0; j < numberOfVariables; j++)
+            objectiveFunction[j] = 1 + random.nextInt(20);
+    }
+
+    Modeler toModeler() {
+        return new Modeler(constraintLeftSide, constraintRightSide, constraintOperators,
+                objectiveFunction, maximizeOrMinimize);
+    }
+
+    /**
+     * The optimum found by a cold started Simplex, the reference of the other solvers.
+     */
+    static double optimum(Modeler model) {
+        Simplex simplex = new Simplex();
+        simplex.solve(model);
+        return simplex.value();
+    }
+
+    /**
+     * Largest violation of the constraints by the given values of the original variables.
+     */
+    static double violation(double[][] constraintLeftSide, double[] constraintRightSide,
+                            Constraint[] constraintOperators, double[] x) {
+        double worst = 0;
+        for (int i = 0; i < constraintRightSide.length; i++) {
+            double sum = 0;
+            for (int j = 0; j < constraintLeftSide[i].length; j++)
+                sum += constraintLeftSide[i][j] * x[j];
+            switch (constraintOperators[i]) {
+                case greaterThan:
+                    worst = Math.max(worst, constraintRightSide[i] - sum);
+                    break;
+                case lessThan:
+                    worst = Math.max(worst, sum - constraintRightSide[i]);
+                    break;
+                case equal:
+                    worst = Math.max(worst, Math.abs(sum - constraintRightSide[i]));
+                    break;
+            }
+        }
+        for (double value : x)
+            worst = Math.max(worst, -value);
+        return worst;
+    }
+
+    double violation(double[] x) {
+        return violation(constraintLeftSide, constraintRightSide, constraintOperators, x);
+    }
+}
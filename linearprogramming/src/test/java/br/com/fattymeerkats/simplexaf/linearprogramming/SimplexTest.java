@@ -0,0 +1,241 @@
+package br.com.fattymeerkats.simplexaf.linearprogramming;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SimplexTest {
+
+    @Test
+    public void solvesTheExample() {
+        double[][] constraintLeftSide = {{1, 1}, {1, 3}, {1, 0}};
+        double[] constraintRightSide = {16, 36, 10};
+        Constraint[] constraintOperators = {Constraint.lessThan, Constraint.lessThan, Constraint.greaterThan};
+        double[] objectiveFunction = {12, 40};
+
+        Simplex simplex = new Simplex();
+        simplex.solve(new Modeler(constraintLeftSide, constraintRightSide, constraintOperators,
+                objectiveFunction, ProblemKind.MAXIMIZE));
+
+        assertEquals(360, simplex.value(), 1.0E-9);
+        assertArrayEquals(new double[]{10, 6}, new double[]{simplex.primal()[0], simplex.primal()[1]}, 1.0E-9);
+        assertArrayEquals(new double[]{40, 0, -28}, simplex.dual(), 1.0E-9);
+    }
+
+    @Test
+    public void reusedWorkspaceMatchesAFreshSimplex() {
+        Random random = new Random(31);
+        Simplex reused = new Simplex();
+        for (int t = 0; t < 30; t++) {
+            // sizes go up and down so the workspace is both grown and reused
+            ProblemKind kind = t % 2 == 0 ? ProblemKind.MAXIMIZE : ProblemKind.MINIMIZE;
+            RandomModel model = new RandomModel(random, 2 + random.nextInt(10), 2 + random.nextInt(10), kind);
+            Simplex fresh = new Simplex();
+            fresh.solve(model.toModeler());
+
+            reused.solve(model.toModeler());
+
+            assertEquals(fresh.value(), reused.value(), 1.0E-9);
+            assertArrayEquals(fresh.primal(), reused.primal(), 1.0E-9);
+            assertArrayEquals(fresh.dual(), reused.dual(), 1.0E-9);
+        }
+    }
+
+    @Test
+    public void reloadedModelerMatchesAFreshOne() {
+        Random random = new Random(231);
+        Modeler reloaded = new Modeler();
+        Simplex reused = new Simplex();
+        for (int t = 0; t < 30; t++) {
+            // sizes go up and down so the tableaux is both grown and overwritten
+            ProblemKind kind = t % 2 == 0 ? ProblemKind.MAXIMIZE : ProblemKind.MINIMIZE;
+            RandomModel model = new RandomModel(random, 2 + random.nextInt(10), 2 + random.nextInt(10), kind);
+            Modeler fresh = model.toModeler();
+            reloaded.reload(model.constraintLeftSide, model.constraintRightSide, model.constraintOperators,
+                    model.objectiveFunction, kind);
+
+            Tableau expected = fresh.getTableau();
+            Tableau actual = reloaded.getTableau();
+            assertEquals(expected.getNumberOfRows(), actual.getNumberOfRows());
+            assertEquals(expected.getNumberOfColumns(), actual.getNumberOfColumns());
+            for (int i = 0; i < expected.getNumberOfRows(); i++)
+                for (int j = 0; j < expected.getNumberOfColumns(); j++)
+                    assertEquals(expected.get(i, j), actual.get(i, j), 0.0);
+
+            Simplex simplex = new Simplex();
+            simplex.solve(fresh);
+            reused.solve(reloaded);
+
+            assertEquals(simplex.value(), reused.value(), 1.0E-9);
+            assertArrayEquals(simplex.primal(), reused.primal(), 1.0E-9);
+        }
+    }
+
+    @Test
+    public void bufferOverloadsMatchTheAllocatingAccessors() {
+        Random random = new Random(331);
+        Simplex simplex = new Simplex();
+        // buffers sized for the largest model, so the smaller ones leave stale values at the end
+        double[] x = new double[40];
+        double[] y = new double[20];
+        int[] basis = new int[20];
+        double[] used = new double[20];
+        double[][] rangesC = new double[20][2];
+        double[][] rangesB = new double[20][2];
+        for (int t = 0; t < 20; t++) {
+            ProblemKind kind = t % 2 == 0 ? ProblemKind.MAXIMIZE : ProblemKind.MINIMIZE;
+            RandomModel model = new RandomModel(random, 2 + random.nextInt(8), 2 + random.nextInt(8), kind);
+            Modeler modeler = model.toModeler();
+            simplex.solve(modeler);
+            int columns = modeler.getNumberOfOriginalVariables() + modeler.getNumberOfConstraints();
+
+            simplex.primal(x);
+            simplex.dual(y);
+            simplex.getBasis(basis);
+            simplex.constraintsFinalValues(x, used);
+            simplex.sensitivityAnalysisVectorC(rangesC);
+            simplex.sensitivityAnalysisVectorB(rangesB);
+
+            double[] primal = simplex.primal();
+            assertArrayEquals(primal, Arrays.copyOf(x, columns), 0.0);
+            assertArrayEquals(simplex.dual(), Arrays.copyOf(y, model.constraintRightSide.length), 0.0);
+            assertArrayEquals(simplex.getBasis(), Arrays.copyOf(basis, modeler.getNumberOfConstraints()));
+            double[] constraints = simplex.constraintsFinalValues(primal);
+            assertArrayEquals(constraints, Arrays.copyOf(used, constraints.length), 0.0);
+            double[][] expectedC = simplex.sensitivityAnalysisVectorC();
+            for (int j = 0; j < expectedC.length; j++)
+                assertArrayEquals(expectedC[j], rangesC[j], 0.0);
+            double[][] expectedB = simplex.sensitivityAnalysisVectorB();
+            for (int i = 0; i < expectedB.length; i++)
+                assertArrayEquals(expectedB[i], rangesB[i], 0.0);
+        }
+    }
+
+    @Test
+    public void warmStartFromTheOptimalBasis() {
+        Random random = new Random(131);
+        for (int t = 0; t < 20; t++) {
+            RandomModel model = new RandomModel(random, 3 + random.nextInt(8), 2 + random.nextInt(10),
+                    ProblemKind.MAXIMIZE);
+            Simplex cold = new Simplex();
+            cold.solve(model.toModeler());
+
+            Simplex warm = new Simplex();
+            warm.solve(model.toModeler(), cold.getBasis());
+
+            assertEquals(cold.value(), warm.value(), 1.0E-9);
+            assertEquals(0, warm.getDualIterations() + warm.getPrimalIterations());
+        }
+    }
+
+    @Test
+    public void anytimeBoundsEncloseTheOptimum() {
+        Random random = new Random(34);
+        for (int t = 0; t < 20; t++) {
+            final ProblemKind kind = t % 2 == 0 ? ProblemKind.MAXIMIZE : ProblemKind.MINIMIZE;
+            final RandomModel model = new RandomModel(random, 3 + random.nextInt(10), 2 + random.nextInt(12), kind);
+            final double optimum = RandomModel.optimum(model.toModeler());
+            final double tolerance = 1.0E-9 * (1 + Math.abs(optimum));
+            final int numberOfVariables = model.objectiveFunction.length;
+            final int[] calls = new int[1];
+
+            Simplex simplex = new Simplex();
+            simplex.setAnytimeListener(new AnytimeListener() {
+                @Override
+                public void feasibleSolution(Simplex simplex) {
+                    calls[0]++;
+                    double[] x = new double[numberOfVariables + model.constraintRightSide.length];
+                    simplex.primal(x);
+                    double[] original = new double[numberOfVariables];
+                    System.arraycopy(x, 0, original, 0, numberOfVariables);
+                    assertTrue(model.violation(original) < 1.0E-9);
+
+                    // the value can't beat the optimum, and the bound can't be beaten by it
+                    if (kind == ProblemKind.MAXIMIZE) {
+                        assertTrue(simplex.value() <= optimum + tolerance);
+                        assertTrue(simplex.getBound() >= optimum - tolerance);
+                    } else {
+                        assertTrue(simplex.value() >= optimum - tolerance);
+                        assertTrue(simplex.getBound() <= optimum + tolerance);
+                    }
+                }
+            });
+            simplex.solve(model.toModeler());
+
+            assertTrue(calls[0] > 0);
+            assertTrue(simplex.isOptimal());
+            assertEquals(optimum, simplex.value(), tolerance);
+        }
+    }
+
+    @Test
+    public void anytimeGapStopsWithinTheGap() {
+        Random random = new Random(134);
+        double gap = 0.05;
+        int early = 0;
+        for (int t = 0; t < 20; t++) {
+            RandomModel model = new RandomModel(random, 10, 15, ProblemKind.MAXIMIZE);
+            double optimum = RandomModel.optimum(model.toModeler());
+
+            Simplex simplex = new Simplex();
+            simplex.setGap(gap);
+            simplex.solve(model.toModeler());
+
+            double[] x = new double[model.objectiveFunction.length];
+            System.arraycopy(simplex.primal(), 0, x, 0, x.length);
+            assertTrue(model.violation(x) < 1.0E-9);
+            assertTrue(simplex.value() <= optimum + 1.0E-9 * (1 + optimum));
+            assertTrue(optimum - simplex.value() <= gap * Math.max(1, Math.abs(simplex.value())) + 1.0E-9);
+            if (!simplex.isOptimal())
+                early++;
+        }
+        assertTrue(early > 0);
+    }
+
+    @Test
+    public void timeLimitStopsAtAFeasibleBasis() {
+        Random random = new Random(234);
+        int early = 0;
+        for (int t = 0; t < 20; t++) {
+            RandomModel model = new RandomModel(random, 10, 15, ProblemKind.MAXIMIZE);
+            double optimum = RandomModel.optimum(model.toModeler());
+            final int[] calls = new int[1];
+
+            Simplex simplex = new Simplex();
+            simplex.setTimeLimit(1);
+            // the first feasible basis takes longer than the limit, so the solve stops right there
+            simplex.setAnytimeListener(new AnytimeListener() {
+                @Override
+                public void feasibleSolution(Simplex simplex) {
+                    if (calls[0]++ == 0) {
+                        try {
+                            Thread.sleep(5);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                }
+            });
+            simplex.solve(model.toModeler());
+
+            double[] x = new double[model.objectiveFunction.length];
+            System.arraycopy(simplex.primal(), 0, x, 0, x.length);
+            assertTrue(model.violation(x) < 1.0E-9);
+            assertTrue(simplex.value() <= optimum + 1.0E-9 * (1 + optimum));
+            assertEquals(1, calls[0]);
+            if (!simplex.isOptimal())
+                early++;
+        }
+        assertTrue(early > 0);
+
+        Simplex unlimited = new Simplex();
+        unlimited.setTimeLimit(0);
+        unlimited.solve(new RandomModel(random, 10, 15, ProblemKind.MAXIMIZE).toModeler());
+        assertTrue(unlimited.isOptimal());
+    }
+}
@@ -0,0 +1,124 @@
+package br.com.fattymeerkats.simplexaf.linearprogramming;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SolutionCacheTest {
+
+    private static CachedSolution solve(SolutionCache cache, RandomModel model) {
+        return cache.solve(model.constraintLeftSide, model.constraintRightSide, model.constraintOperators,
+                model.objectiveFunction, model.maximizeOrMinimize);
+    }
+
+    @Test
+    public void repeatedModelIsAHit() {
+        RandomModel model = new RandomModel(new Random(32), 6, 8, ProblemKind.MAXIMIZE);
+        Simplex reference = new Simplex();
+        reference.solve(model.toModeler());
+        SolutionCache cache = new SolutionCache(10, 100000);
+
+        CachedSolution first = solve(cache, model);
+        CachedSolution second = solve(cache, model);
+
+        assertFalse(first.isHit());
+        assertTrue(second.isHit());
+        assertEquals(reference.value(), second.value(), 1.0E-9);
+        assertArrayEquals(reference.primal(), second.primal(), 1.0E-9);
+        assertArrayEquals(reference.dual(), second.dual(), 1.0E-9);
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void reorderedConstraintsAreAHit() {
+        RandomModel model = new RandomModel(new Random(132), 6, 8, ProblemKind.MINIMIZE);
+        SolutionCache cache = new SolutionCache(10, 100000);
+        solve(cache, model);
+
+        // swap the first and the last constraints
+        int last = model.constraintRightSide.length - 1;
+        double[] row = model.constraintLeftSide[0];
+        model.constraintLeftSide[0] = model.constraintLeftSide[last];
+        model.constraintLeftSide[last] = row;
+        double right = model.constraintRightSide[0];
+        model.constraintRightSide[0] = model.constraintRightSide[last];
+        model.constraintRightSide[last] = right;
+        Constraint operator = model.constraintOperators[0];
+        model.constraintOperators[0] = model.constraintOperators[last];
+        model.constraintOperators[last] = operator;
+        Simplex reference = new Simplex();
+        reference.solve(model.toModeler());
+
+        CachedSolution solution = solve(cache, model);
+
+        assertTrue(solution.isHit());
+        assertEquals(reference.value(), solution.value(), 1.0E-9);
+        assertArrayEquals(reference.primal(), solution.primal(), 1.0E-9);
+        assertArrayEquals(reference.dual(), solution.dual(), 1.0E-9);
+        assertArrayEquals(reference.constraintsFinalValues(reference.primal()),
+                solution.constraintsFinalValues(solution.primal()), 1.0E-9);
+    }
+
+    @Test
+    public void changedModelIsAMiss() {
+        RandomModel model = new RandomModel(new Random(232), 6, 8, ProblemKind.MAXIMIZE);
+        SolutionCache cache = new SolutionCache(10, 100000);
+        solve(cache, model);
+
+        model.constraintRightSide[1] += 7;
+        model.objectiveFunction[2] += 3;
+        CachedSolution solution = solve(cache, model);
+
+        assertFalse(solution.isHit());
+        assertEquals(RandomModel.optimum(model.toModeler()), solution.value(), 1.0E-9);
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void evictsTheLeastRecentlyUsed() {
+        Random random = new Random(332);
+        SolutionCache cache = new SolutionCache(3, 100000);
+        RandomModel first = new RandomModel(random, 4, 5, ProblemKind.MAXIMIZE);
+        solve(cache, first);
+        for (int t = 0; t < 3; t++)
+            solve(cache, new RandomModel(random, 4, 5, ProblemKind.MAXIMIZE));
+
+        assertEquals(3, cache.size());
+        assertFalse(solve(cache, first).isHit());
+    }
+
+    @Test
+    public void concurrentRequestsMatchTheSimplex() throws Exception {
+        final SolutionCache cache = new SolutionCache(50, 1000000);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        List<Future<Double>> errors = new ArrayList<Future<Double>>();
+        for (int t = 0; t < 200; t++) {
+            final long seed = t % 20;
+            errors.add(pool.submit(new Callable<Double>() {
+                @Override
+                public Double call() {
+                    RandomModel model = new RandomModel(new Random(seed), 6, 8, ProblemKind.MAXIMIZE);
+                    return Math.abs(solve(cache, model).value() - RandomModel.optimum(model.toModeler()));
+                }
+            }));
+        }
+        for (Future<Double> error : errors)
+            assertEquals(0, error.get(), 1.0E-9);
+        pool.shutdown();
+
+        assertEquals(200, cache.getHits() + cache.getMisses());
+        assertEquals(20, cache.size());
+    }
+}
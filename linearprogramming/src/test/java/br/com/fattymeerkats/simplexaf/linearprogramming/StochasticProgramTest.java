@@ -0,0 +1,110 @@
+package br.com.fattymeerkats.simplexaf.linearprogramming;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class StochasticProgramTest {
+
+    /**
+     * Buy the capacity x of each product (cost c, total budget), then in each scenario sell up
+     * to the demand (revenue, as a negative cost) and buy the missing production (penalty):
+     * the recourse is always feasible.
+     */
+    private static void check(Random random, ProblemKind kind) {
+        int products = 2 + random.nextInt(3);
+        int numberOfScenarios = 2 + random.nextInt(4);
+        double sign = kind == ProblemKind.MINIMIZE ? 1 : -1;
+
+        double[] objectiveFunction = new double[products];
+        for (int j = 0; j < products; j++)
+            objectiveFunction[j] = sign * (100 + random.nextInt(200));
+        double[] ones = new double[products];
+        Arrays.fill(ones, 1);
+        double[][] constraintLeftSide = {ones};
+        double[] constraintRightSide = {100 + random.nextInt(400)};
+        Constraint[] constraintOperators = {Constraint.lessThan};
+
+        int rows = 2 * products;
+        int recourseVariables = 2 * products;
+        double[][] recourse = new double[rows][recourseVariables];
+        Constraint[] recourseOperators = new Constraint[rows];
+        for (int k = 0; k < products; k++) {
+            recourse[k][k] = 1; // bought
+            recourse[k][products + k] = -1; // sold
+            recourseOperators[k] = Constraint.greaterThan;
+            recourse[products + k][products + k] = 1;
+            recourseOperators[products + k] = Constraint.lessThan;
+        }
+
+        List<Scenario> scenarios = new ArrayList<Scenario>();
+        for (int s = 0; s < numberOfScenarios; s++) {
+            double[][] technology = new double[rows][products];
+            double[] right = new double[rows];
+            double[] cost = new double[recourseVariables];
+            for (int k = 0; k < products; k++) {
+                technology[k][k] = 1 + random.nextDouble() * 3;
+                right[k] = 50 + random.nextInt(200);
+                right[products + k] = random.nextInt(300);
+                cost[k] = sign * (300 + random.nextInt(200));
+                cost[products + k] = -sign * (50 + random.nextInt(200));
+            }
+            scenarios.add(new Scenario(1.0 / numberOfScenarios, cost, technology, recourse, right, recourseOperators));
+        }
+
+        StochasticProgram program = new StochasticProgram(objectiveFunction, constraintLeftSide,
+                constraintRightSide, constraintOperators, kind, scenarios);
+        program.setThreads(2);
+        program.solve();
+
+        // extensive form: the first stage and a copy of the recourse per scenario
+        int numberOfVariables = products + numberOfScenarios * recourseVariables;
+        int numberOfConstraints = 1 + numberOfScenarios * rows;
+        double[][] left = new double[numberOfConstraints][numberOfVariables];
+        double[] right = new double[numberOfConstraints];
+        Constraint[] operators = new Constraint[numberOfConstraints];
+        double[] cost = new double[numberOfVariables];
+        System.arraycopy(ones, 0, left[0], 0, products);
+        System.arraycopy(objectiveFunction, 0, cost, 0, products);
+        right[0] = constraintRightSide[0];
+        operators[0] = constraintOperators[0];
+        for (int s = 0; s < numberOfScenarios; s++) {
+            Scenario scenario = scenarios.get(s);
+            int offset = products + s * recourseVariables;
+            for (int i = 0; i < rows; i++) {
+                int row = 1 + s * rows + i;
+                System.arraycopy(scenario.getTechnology()[i], 0, left[row], 0, products);
+                System.arraycopy(scenario.getRecourse()[i], 0, left[row], offset, recourseVariables);
+                right[row] = scenario.getConstraintRightSide()[i];
+                operators[row] = scenario.getConstraintOperators()[i];
+            }
+            for (int j = 0; j < recourseVariables; j++)
+                cost[offset + j] = scenario.getProbability() * scenario.getObjectiveFunction()[j];
+        }
+        double optimum = RandomModel.optimum(new Modeler(left, right, operators, cost, kind));
+
+        assertEquals(optimum, program.value(), 1.0E-5 * (1 + Math.abs(optimum)));
+        assertTrue(RandomModel.violation(constraintLeftSide, constraintRightSide, constraintOperators,
+                program.primal()) < 1.0E-9);
+    }
+
+    @Test
+    public void minimizationMatchesTheExtensiveForm() {
+        Random random = new Random(29);
+        for (int t = 0; t < 15; t++)
+            check(random, ProblemKind.MINIMIZE);
+    }
+
+    @Test
+    public void maximizationMatchesTheExtensiveForm() {
+        Random random = new Random(129);
+        for (int t = 0; t < 15; t++)
+            check(random, ProblemKind.MAXIMIZE);
+    }
+}
@@ -0,0 +1,77 @@
+package br.com.fattymeerkats.simplexaf.linearprogramming;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class TableauStorageTest {
+
+    @Test
+    public void offHeapStoragesMatchTheHeap() {
+        Random random = new Random(30);
+        for (int t = 0; t < 10; t++) {
+            ProblemKind kind = t % 2 == 0 ? ProblemKind.MAXIMIZE : ProblemKind.MINIMIZE;
+            RandomModel model = new RandomModel(random, 3 + random.nextInt(10), 2 + random.nextInt(10), kind);
+            Simplex heap = new Simplex();
+            heap.solve(model.toModeler());
+
+            for (TableauStorage storage : new TableauStorage[]{TableauStorage.DIRECT, TableauStorage.MAPPED}) {
+                Simplex simplex = new Simplex();
+                simplex.solve(new Modeler(model.constraintLeftSide, model.constraintRightSide,
+                        model.constraintOperators, model.objectiveFunction, kind, storage));
+
+                assertEquals(heap.value(), simplex.value(), 1.0E-9);
+                assertArrayEquals(heap.primal(), simplex.primal(), 1.0E-9);
+                assertArrayEquals(heap.dual(), simplex.dual(), 1.0E-9);
+            }
+        }
+    }
+
+    @Test
+    public void streamedRowsFillTheSameTableaux() {
+        Random random = new Random(130);
+        for (int t = 0; t < 10; t++) {
+            ProblemKind kind = t % 2 == 0 ? ProblemKind.MAXIMIZE : ProblemKind.MINIMIZE;
+            final RandomModel model = new RandomModel(random, 3 + random.nextInt(10), 2 + random.nextInt(10), kind);
+            Tableau array = model.toModeler().getTableau();
+
+            // the rows are generated on demand, never held together in the heap
+            final int[] reads = new int[1];
+            Modeler streamed = new Modeler(new ConstraintRows() {
+                @Override
+                public void readRow(int i, double[] destination) {
+                    assertEquals(reads[0]++, i);
+                    System.arraycopy(model.constraintLeftSide[i], 0, destination, 0, model.objectiveFunction.length);
+                }
+            }, model.constraintRightSide, model.constraintOperators, model.objectiveFunction, kind,
+                    TableauStorage.DIRECT);
+
+            assertEquals(model.constraintRightSide.length, reads[0]);
+            for (int i = 0; i < array.getNumberOfRows(); i++)
+                for (int j = 0; j < array.getNumberOfColumns(); j++)
+                    assertEquals(array.get(i, j), streamed.getTableau().get(i, j), 0.0);
+        }
+    }
+
+    @Test
+    public void interiorPointReadsAnOffHeapTableaux() {
+        Random random = new Random(230);
+        for (int t = 0; t < 10; t++) {
+            ProblemKind kind = t % 2 == 0 ? ProblemKind.MAXIMIZE : ProblemKind.MINIMIZE;
+            RandomModel model = new RandomModel(random, 3 + random.nextInt(8), 2 + random.nextInt(10), kind);
+            InteriorPoint heap = new InteriorPoint(model.toModeler());
+
+            for (TableauStorage storage : new TableauStorage[]{TableauStorage.DIRECT, TableauStorage.MAPPED}) {
+                InteriorPoint interiorPoint = new InteriorPoint(new Modeler(model.constraintLeftSide,
+                        model.constraintRightSide, model.constraintOperators, model.objectiveFunction, kind,
+                        storage));
+
+                assertEquals(heap.value(), interiorPoint.value(), 0.0);
+                assertArrayEquals(heap.primal(), interiorPoint.primal(), 0.0);
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package br.com.fattymeerkats.simplexaf.linearprogramming.batch;
+
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.HashMap;
+import java.util.Map;
+
+import br.com.fattymeerkats.simplexaf.linearprogramming.Constraint;
+import br.com.fattymeerkats.simplexaf.linearprogramming.Modeler;
+import br.com.fattymeerkats.simplexaf.linearprogramming.ProblemKind;
+import br.com.fattymeerkats.simplexaf.linearprogramming.Simplex;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class BatchSolverTest {
+
+    private static final String MODELS =
+            "# the example of the Simplex\n"
+            + "model example\n"
+            + "max 12 40\n"
+            + "1 1 <= 16\n"
+            + "1 3 <= 36\n"
+            + "1 0 >= 10\n"
+            + "\n"
+            + "min 1 1\n"
+            + "1 1 <= 2\n"
+            + "1 1 >= 5\n"
+            + "\n"
+            + "model broken\n"
+            + "max 1 2\n"
+            + "1 <= 3\n"
+            + "\n"
+            + "model equal\n"
+            + "min 2 3\n"
+            + "1 1 = 4\n"
+            + "1 0 <= 3\n";
+
+    @Test
+    public void readsTheBatchFormat() throws Exception {
+        ModelReader reader = new ModelReader(new BufferedReader(new StringReader(MODELS)), "test");
+
+        BatchModel example = reader.next();
+        BatchModel unnamed = reader.next();
+        BatchModel broken = reader.next();
+        BatchModel equal = reader.next();
+
+        assertEquals("example", example.getId());
+        assertNull(example.getError());
+        assertEquals(2, example.getNumberOfOriginalVariables());
+        assertEquals("test:2", unnamed.getId());
+        assertEquals("broken", broken.getId());
+        assertTrue(broken.getError().startsWith("line 14:"));
+        assertEquals(ProblemKind.MINIMIZE, equal.toModeler().getProblemKind());
+        assertNull(reader.next());
+    }
+
+    @Test
+    public void solvesEachModelLikeTheSimplex() throws Exception {
+        StringWriter text = new StringWriter();
+        BatchSolver batch = new BatchSolver(2, new PrintWriter(text));
+        batch.solve(new BufferedReader(new StringReader(MODELS)), "test");
+
+        assertEquals(4, batch.finish());
+
+        Map<String, String[]> results = new HashMap<String, String[]>();
+        for (String line : text.toString().split("\n"))
+            results.put(line.substring(0, line.indexOf(' ')), line.split(" "));
+
+        Simplex example = new Simplex();
+        example.solve(new Modeler(new double[][]{{1, 1}, {1, 3}, {1, 0}}, new double[]{16, 36, 10},
+                new Constraint[]{Constraint.lessThan, Constraint.lessThan, Constraint.greaterThan},
+                new double[]{12, 40}, ProblemKind.MAXIMIZE));
+        assertEquals("optimal", results.get("example")[1]);
+        assertEquals(example.value(), Double.parseDouble(results.get("example")[2]), 1.0E-9);
+        assertEquals(example.primal()[0], Double.parseDouble(results.get("example")[3]), 1.0E-9);
+        assertEquals(example.primal()[1], Double.parseDouble(results.get("example")[4]), 1.0E-9);
+
+        assertEquals("infeasible", results.get("test:2")[1]);
+        assertEquals("error", results.get("broken")[1]);
+
+        Simplex equal = new Simplex();
+        equal.solve(new Modeler(new double[][]{{1, 1}, {1, 0}}, new double[]{4, 3},
+                new Constraint[]{Constraint.equal, Constraint.lessThan}, new double[]{2, 3},
+                ProblemKind.MINIMIZE));
+        assertEquals("optimal", results.get("equal")[1]);
+        assertEquals(equal.value(), Double.parseDouble(results.get("equal")[2]), 1.0E-9);
+    }
+}